@@ -0,0 +1,25 @@
+package es.karmadev.api.script;
+
+/**
+ * Represents a script load option
+ */
+public enum LoadOption {
+    /**
+     * Read the script through a memory mapped
+     * file instead of reading it into the heap. The
+     * source is tokenized directly from the mapped
+     * bytes, and the method bodies are kept as ranges
+     * of the mapped file. Byte sources which are not
+     * files are tokenized directly from their bytes
+     */
+    MEMORY_MAPPED,
+    /**
+     * Only find the method boundaries while loading
+     * the script, and compile each method body the first
+     * time the method is resolved through
+     * {@link es.karmadev.api.script.body.ScriptBody#getMethod(String, Object...)}
+     * or called. Syntax errors inside a method body are
+     * reported then instead of when the script is loaded
+     */
+    LAZY_METHODS
+}
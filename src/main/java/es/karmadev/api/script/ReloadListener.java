@@ -0,0 +1,29 @@
+package es.karmadev.api.script;
+
+import es.karmadev.api.script.body.ScriptBody;
+
+/**
+ * Listener of the scripts reloaded by
+ * a {@link ScriptWatcher}. The listener is called
+ * from the watcher thread
+ */
+public interface ReloadListener {
+
+    /**
+     * A script has been reloaded
+     *
+     * @param name the script name
+     * @param body the new script, or null if
+     *             the script has been removed
+     */
+    default void reloaded(final String name, final ScriptBody body) {}
+
+    /**
+     * A script has failed to reload. The
+     * previous version of the script is kept
+     *
+     * @param name the script name
+     * @param error the reload error
+     */
+    default void failed(final String name, final Exception error) {}
+}
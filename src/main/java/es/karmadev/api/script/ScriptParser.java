@@ -1,64 +1,120 @@
 package es.karmadev.api.script;
 
-import es.karmadev.api.array.ArrayUtils;
 import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.ScriptBody;
 import es.karmadev.api.script.body.ScriptMethod;
-import es.karmadev.api.script.exception.*;
-import es.karmadev.api.script.exception.body.NoSuchImportException;
+import es.karmadev.api.script.cache.ScriptCache;
+import es.karmadev.api.script.exception.ScriptException;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
 import es.karmadev.api.script.exception.body.ScriptWorkException;
-import es.karmadev.api.script.lang.imports.sys.System;
+import es.karmadev.api.script.lang.imports.ImportRegistry;
+import es.karmadev.api.script.parser.SourceParser;
+import es.karmadev.api.script.source.ScriptSource;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Script parser. The script parser allows
- * to read a script file
+ * to read a script file, or any other
+ * {@link ScriptSource script source}
  */
 public final class ScriptParser {
 
-    private final static String[] PROTECTED_WORDS = {
-            "while",
-            "if",
-            "or",
-            "switch",
-            "exit",
-            "return",
-            "void",
-            "string",
-            "byte",
-            "short",
-            "int",
-            "long",
-            "float",
-            "double",
-            "bool",
-            "is",
-            "type",
-            "this",
-            "echo"
-    };
+    private final ScriptSource source;
+    private final ImportRegistry imports;
+    private final Set<LoadOption> options = EnumSet.noneOf(LoadOption.class);
 
-    private final static Pattern schemaPattern = Pattern.compile("^(this)?:schema(\\s)+(?<version>[0-9]+)$", Pattern.CASE_INSENSITIVE);
-    private final static Pattern importPattern = Pattern.compile("^(this)?#def \\[(?<import>\\w+)]$", Pattern.CASE_INSENSITIVE);
+    private ScriptCache cache;
 
-    private final static Pattern methodStartPattern = Pattern.compile("^((?<method>\\w+)\\((?<parameters>.*)\\)\\s*\\{.*)$");
+    public ScriptParser(final Path script) {
+        this(script, ImportRegistry.global());
+    }
+
+    /**
+     * Initialize the parser
+     *
+     * @param script the script file
+     * @param options the load options
+     */
+    public ScriptParser(final Path script, final LoadOption... options) {
+        this(script, ImportRegistry.global(), options);
+    }
 
-    private final Path script;
-    private final Set<Import> imports = ConcurrentHashMap.newKeySet();
+    /**
+     * Initialize the parser. The imports added to
+     * the parser are only visible to the parser, on
+     * top of the registry imports
+     *
+     * @param script the script file
+     * @param imports the registry of the imports the
+     *                script can define
+     * @param options the load options
+     */
+    public ScriptParser(final Path script, final ImportRegistry imports, final LoadOption... options) {
+        this(ScriptSource.of(script), imports, options);
+    }
 
-    public ScriptParser(final Path script) {
-        this.script = script;
-        this.imports.add(System.getImport());
+    /**
+     * Initialize the parser
+     *
+     * @param source the script source
+     * @param options the load options
+     */
+    public ScriptParser(final ScriptSource source, final LoadOption... options) {
+        this(source, ImportRegistry.global(), options);
+    }
+
+    /**
+     * Initialize the parser. The imports added to
+     * the parser are only visible to the parser, on
+     * top of the registry imports. When the script
+     * is {@link LoadOption#MEMORY_MAPPED memory mapped}, the
+     * bytes of the source are read through a view instead
+     * of being decoded
+     *
+     * @param source the script source
+     * @param imports the registry of the imports the
+     *                script can define
+     * @param options the load options
+     */
+    public ScriptParser(final ScriptSource source, final ImportRegistry imports, final LoadOption... options) {
+        this.source = source;
+        this.imports = new ImportRegistry(imports);
+        Collections.addAll(this.options, options);
+    }
+
+    /**
+     * Add an import the script can define. Java
+     * classes can be turned into imports through
+     * {@link es.karmadev.api.script.lang.bind.ImportBinder}
+     *
+     * @param imp the import
+     * @return the parser
+     */
+    public ScriptParser addImport(final Import imp) {
+        imports.register(imp);
+        return this;
+    }
+
+    /**
+     * Set the cache of compiled scripts. When the
+     * script has a valid image in the cache, the image
+     * is read instead of parsing the script. Otherwise, the
+     * script is parsed, and its image is stored
+     *
+     * @param cache the script cache, or null to
+     *              always parse the script
+     * @return the parser
+     */
+    public ScriptParser withCache(final ScriptCache cache) {
+        this.cache = cache;
+        return this;
     }
 
     /**
@@ -72,173 +128,45 @@ public final class ScriptParser {
      */
     public ScriptBody getBody() throws ScriptException, ScriptRuntimeException {
         try {
-            List<String> lines = Files.readAllLines(script);
-            if (lines.isEmpty()) {
-                throw new InvalidSchemaVersion();
+            CharSequence text = source.read(options.contains(LoadOption.MEMORY_MAPPED));
+            if (cache == null) return parse(text);
+
+            byte[] hash = ScriptCache.hash(text);
+            ScriptBody body = cache.load(hash, text, imports);
+            if (body != null && (options.contains(LoadOption.LAZY_METHODS) || isCompiled(body))) return body;
+
+            body = parse(text);
+            try {
+                cache.store(hash, body);
+            } catch (IOException | ScriptRuntimeException ex) {
+                java.lang.System.out.println("[WARNING] Failed to cache script " + source.getName() + " (" + ex.getMessage() + ")");
             }
 
-            int line = 0;
-            while ((lines.get(line)).trim().isEmpty()) {
-                line++;
-            }
-
-            String schema = lines.remove(line++);
-            Matcher schemaMatcher = schemaPattern.matcher(schema);
-
-            if (!schemaMatcher.matches()) {
-                if (schema.startsWith(":schema")) {
-                    throw new InvalidSchemaVersion(schema.replaceFirst("schema", "").trim());
-                }
-
-                throw new InvalidSchemaVersion();
-            }
-
-            int schemaVersion = Integer.parseInt(schemaMatcher.group("version"));
-
-            boolean importing = true;
-            boolean commenting = false;
-            boolean parsing = true;
-
-            Set<Import> usedImports = new HashSet<>();
-            List<ScriptMethod> methods = new ArrayList<>();
-
-            int currentLevel = 0;
-
-            String currentMethod = "";
-            String[] currentParameters = new String[0];
-
-            StringBuilder methodBuilder = new StringBuilder();
-            for (String str : lines) {
-                str = removeFirstSpaces(str);
-                line++;
-
-                if (str.trim().isEmpty()) {
-                    continue;
-                }
-                if (commenting) {
-                    if (str.endsWith("*/")) {
-                        commenting = false;
-                    }
-
-                    continue;
-                }
-                if (str.startsWith("/*")) {
-                    commenting = true;
-                    continue;
-                }
-
-                Matcher importMatcher = importPattern.matcher(str);
-                boolean isImport = false;
-                if (importMatcher.matches()) {
-                    isImport = true;
-                    if (!importing) {
-                        throw new InvalidSyntaxException(str, line, "Cannot import out of import area");
-                    }
-                }
-
-                if (isImport) {
-                    String importName = importMatcher.group("import");
-                    Import imp = imports.stream().filter((i) -> i.getName().equals(importName)).findAny().orElse(null);
-
-                    if (ArrayUtils.containsAny(PROTECTED_WORDS, importName)) {
-                        throw new InvalidSyntaxException(str, line, "Protected import name (\"" + importName + "\")");
-                    }
-
-                    if (imp == null) {
-                        throw new NoSuchImportException(importName);
-                    }
-
-                    if (!usedImports.add(imp)) {
-                        java.lang.System.out.println("[WARN] Duplicated import for " + importName + " at script " + script + " (" + str + ":" + line + ")");
-                    }
-                }
-
-                if (str.startsWith("exit")) {
-                    if (currentLevel == 0) {
-                        throw new InvalidSyntaxException(str, line, "Statement out of method body");
-                    }
-
-                    if (!str.contains(" ")) {
-                        java.lang.System.out.println("[WARNING] exit statement without exit code at line " + line);
-                    } else {
-                        String[] data = str.split(" ");
-                        String v1 = data[1];
-
-                        try {
-                            Long.parseLong(v1);
-                        } catch (NumberFormatException ex) {
-                            try {
-                                Double.parseDouble(v1);
-                            } catch (NumberFormatException ex1) {
-                                throw new InvalidSyntaxException(str, line, "exit statement with invalid exit code");
-                            }
-                        }
-                    }
-
-                    //parsing = false;
-                }
-
-                Matcher methodMatcher = methodStartPattern.matcher(str);
-                if (methodMatcher.matches()) {
-                    importing = false;
-                    currentMethod = methodMatcher.group("method");
-
-                    String rawParams = methodMatcher.group("parameters");
-                    if (rawParams.isEmpty()) {
-                        currentParameters = new String[0];
-                    } else {
-                        currentParameters = groupContent(rawParams);
-                    }
-
-                    boolean multi = false;
-                    for (String p : currentParameters) {
-                        if (multi) {
-                            throw new InvalidSyntaxException(str, line, "Multiple parameters modifier is only supported for one parameter");
-                        }
-
-                        if (p.endsWith("::")) {
-                            multi = true;
-                        }
-                    }
-
-                    currentLevel++;
-                } else {
-                    if (str.trim().endsWith("{")) {
-                        currentLevel++;
-                    }
-                    if (str.trim().equals("}")) {
-                        currentLevel--;
-                        if (currentLevel == 0) {
-                            parsing = true;
-                            String rawMethod = methodBuilder.substring(0,
-                                    methodBuilder.length() - 1);
-
-                            ScriptMethod method = new ScriptMethod(currentMethod, rawMethod, currentParameters);
-                            methods.add(method);
-
-                            methodBuilder = new StringBuilder();
-                        }
-                    }
-
-                    if (parsing && currentLevel != 0) {
-                        methodBuilder.append(str).append("\n");
-                        if (str.startsWith("exit")) {
-                            parsing = false;
-                        }
-                    }
-                }
-            }
-
-            if (methods.stream().noneMatch((method) -> method.getName().equals("main") && method.getParameters() == 0)) {
-                throw new ScriptInitializationException("Missing main method on script body");
-            }
-
-            return new ScriptBody(schemaVersion, usedImports, methods);
+            return body;
         } catch (IOException ex){
             throw new ScriptWorkException(ex);
         }
     }
 
+    /*
+    An image written from a lazy body may hold methods which
+    are not compiled. An eager load parses the script again
+    instead, so syntax errors are still reported when loading
+     */
+    private static boolean isCompiled(final ScriptBody body) {
+        for (ScriptMethod method : body.getMethods()) {
+            if (!method.isCompiled()) return false;
+        }
+
+        return true;
+    }
+
+    private ScriptBody parse(final CharSequence text) throws ScriptException {
+        SourceParser parser = new SourceParser(source.getName(), text, imports,
+                options.contains(LoadOption.LAZY_METHODS));
+        return parser.parse();
+    }
+
     public static String removeFirstSpaces(final String line) {
         int lastIndex = 0;
 
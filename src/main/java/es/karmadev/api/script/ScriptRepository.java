@@ -0,0 +1,444 @@
+package es.karmadev.api.script;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.cache.ScriptCache;
+import es.karmadev.api.script.exception.ScriptException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.imports.ImportRegistry;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Script repository. The repository loads every
+ * script of a directory tree, and keeps the loaded
+ * scripts by name. The name of a script is its path
+ * relative to the repository directory, without the
+ * <code>.kls</code> extension and using <code>/</code>
+ * as separator, for instance <code>npc/guard</code>.
+ * <p>
+ * Directories are scanned and scripts are parsed in parallel
+ * on a fork-join pool, and every script is parsed with the same
+ * imports. A script which fails to load does not stop the rest
+ * of the scripts from loading; its error is reported by name
+ * instead. The loaded scripts are published all at once when
+ * the load completes, so lookups never see a partial load
+ */
+public final class ScriptRepository {
+
+    /**
+     * The script file extension
+     */
+    public final static String EXTENSION = ".kls";
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final LoadOption[] options;
+    private final ImportRegistry imports = new ImportRegistry(ImportRegistry.global());
+
+    private final Object publishing = new Object();
+
+    private volatile ScriptCache cache;
+    private volatile Map<String, ScriptBody> scripts = Collections.emptyMap();
+    private volatile Map<String, Exception> errors = Collections.emptyMap();
+    private volatile Map<String, Map<ScriptMethod, byte[]>> snapshots = Collections.emptyMap();
+
+    /**
+     * Initialize the repository. Scripts
+     * are loaded on the common pool
+     *
+     * @param directory the scripts directory
+     * @param options the load options of the scripts
+     */
+    public ScriptRepository(final Path directory, final LoadOption... options) {
+        this(directory, ForkJoinPool.commonPool(), options);
+    }
+
+    /**
+     * Initialize the repository
+     *
+     * @param directory the scripts directory
+     * @param pool the pool to load the scripts on
+     * @param options the load options of the scripts
+     */
+    public ScriptRepository(final Path directory, final ForkJoinPool pool, final LoadOption... options) {
+        this.directory = directory;
+        this.pool = pool;
+        this.options = options.clone();
+    }
+
+    /**
+     * Add an import the scripts can
+     * define. The imports are shared by
+     * every script of the repository
+     *
+     * @param imp the import
+     * @return the repository
+     */
+    public ScriptRepository addImport(final Import imp) {
+        imports.register(imp);
+        return this;
+    }
+
+    /**
+     * Get the registry of the imports the
+     * scripts can define. The registry is
+     * shared by every script of the repository
+     *
+     * @return the import registry
+     */
+    public ImportRegistry getImports() {
+        return imports;
+    }
+
+    /**
+     * Set the cache of compiled scripts
+     *
+     * @param cache the script cache, or null to
+     *              always parse the scripts
+     * @return the repository
+     */
+    public ScriptRepository withCache(final ScriptCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Get the scripts directory
+     *
+     * @return the scripts directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Load every script of the directory tree. The
+     * loaded scripts replace the scripts of the previous
+     * load once all of them have been loaded
+     *
+     * @return the errors of the scripts which failed
+     * to load, by script name
+     * @throws ScriptWorkException if the scripts directory
+     * cannot be read
+     */
+    public Map<String, Exception> load() throws ScriptWorkException {
+        if (!Files.isDirectory(directory)) {
+            throw new ScriptWorkException("Cannot load scripts from " + directory + " because it's not a directory");
+        }
+
+        ConcurrentMap<String, ScriptBody> loaded = new ConcurrentHashMap<>();
+        ConcurrentMap<String, Exception> failed = new ConcurrentHashMap<>();
+        ConcurrentMap<String, Map<ScriptMethod, byte[]>> contents = new ConcurrentHashMap<>();
+        pool.invoke(new ScanTask(directory, loaded, failed, contents));
+
+        synchronized (publishing) {
+            this.scripts = Collections.unmodifiableMap(new HashMap<>(loaded));
+            this.errors = Collections.unmodifiableMap(new HashMap<>(failed));
+            this.snapshots = Collections.unmodifiableMap(new HashMap<>(contents));
+
+            return errors;
+        }
+    }
+
+    /**
+     * Reload a script file. Only the methods which have
+     * changed are compiled again; the methods which have
+     * the same name, parameters and content are reused from
+     * the loaded script. The new script replaces the loaded one
+     * at once: runs which already got the loaded script finish
+     * on it, and the next lookups get the new script. If the
+     * file no longer exists, the script, and every script below
+     * it if it was a directory, is removed.
+     * <p>
+     * Reloaded scripts are read into the heap, even when the
+     * scripts are {@link LoadOption#MEMORY_MAPPED memory mapped}, as
+     * a mapped file which is written in place changes under the
+     * script which mapped it. For the same reason, the methods of a
+     * mapped script are compared against a hash of their content
+     * taken when they were loaded, and lazy methods which had not
+     * been compiled yet are never reused.
+     * <p>
+     * If the script fails to load, the loaded script is kept,
+     * and the error is reported by name
+     *
+     * @param file the script file
+     * @return the new script, or null if it has been removed
+     * @throws ScriptException if the script is not valid
+     * @throws ScriptWorkException if the script cannot be read
+     */
+    public ScriptBody reload(final Path file) throws ScriptException, ScriptWorkException {
+        String name = nameOf(file);
+        if (!Files.exists(file)) {
+            remove(name);
+            return null;
+        }
+
+        ScriptBody body;
+        Map<ScriptMethod, byte[]> snapshot = new HashMap<>();
+        try {
+            body = relink(scripts.get(name), snapshots.get(name), parse(file, true, false, null), snapshot);
+        } catch (ScriptException | RuntimeException ex) {
+            synchronized (publishing) {
+                Map<String, Exception> errors = new HashMap<>(this.errors);
+                errors.put(name, ex);
+                this.errors = Collections.unmodifiableMap(errors);
+            }
+
+            throw ex;
+        }
+
+        synchronized (publishing) {
+            Map<String, ScriptBody> scripts = new HashMap<>(this.scripts);
+            scripts.put(name, body);
+            this.scripts = Collections.unmodifiableMap(scripts);
+
+            Map<String, Map<ScriptMethod, byte[]>> snapshots = new HashMap<>(this.snapshots);
+            if (snapshot.isEmpty()) {
+                snapshots.remove(name);
+            } else {
+                snapshots.put(name, snapshot);
+            }
+            this.snapshots = Collections.unmodifiableMap(snapshots);
+
+            if (errors.containsKey(name)) {
+                Map<String, Exception> errors = new HashMap<>(this.errors);
+                errors.remove(name);
+                this.errors = Collections.unmodifiableMap(errors);
+            }
+        }
+
+        return body;
+    }
+
+    /**
+     * Watch the scripts directory tree, and reload
+     * every script which is created, modified or
+     * deleted
+     *
+     * @param listener the listener of the reloads
+     * @return the watcher, which must be closed to
+     * stop watching the directory
+     * @throws ScriptWorkException if the directory
+     * cannot be watched
+     */
+    public ScriptWatcher watch(final ReloadListener listener) throws ScriptWorkException {
+        try {
+            return new ScriptWatcher(this, listener);
+        } catch (IOException ex) {
+            throw new ScriptWorkException(ex);
+        }
+    }
+
+    /**
+     * Get a loaded script
+     *
+     * @param name the script name
+     * @return the script, or null if there's
+     * no loaded script with that name
+     */
+    public ScriptBody get(final String name) {
+        return scripts.get(name);
+    }
+
+    /**
+     * Get the loaded scripts
+     *
+     * @return the unmodifiable scripts, by name
+     */
+    public Map<String, ScriptBody> getScripts() {
+        return scripts;
+    }
+
+    /**
+     * Get the errors of the scripts which
+     * failed to load on the last load
+     *
+     * @return the unmodifiable errors, by
+     * script name
+     */
+    public Map<String, Exception> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get the name of a script file
+     *
+     * @param file the script file
+     * @return the script name
+     */
+    public String nameOf(final Path file) {
+        Path relative = directory.relativize(file);
+
+        StringBuilder builder = new StringBuilder();
+        for (Path part : relative) {
+            if (builder.length() > 0) builder.append('/');
+            builder.append(part);
+        }
+
+        String name = builder.toString();
+        return (name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name);
+    }
+
+    private ScriptBody parse(final Path file, final boolean lazy, final boolean mapped,
+                             final ScriptCache cache) throws ScriptException {
+        EnumSet<LoadOption> options = EnumSet.noneOf(LoadOption.class);
+        Collections.addAll(options, this.options);
+        if (lazy) options.add(LoadOption.LAZY_METHODS);
+        if (!mapped) options.remove(LoadOption.MEMORY_MAPPED);
+
+        return new ScriptParser(file, imports, options.toArray(new LoadOption[0])).withCache(cache).getBody();
+    }
+
+    private ScriptBody relink(final ScriptBody previous, final Map<ScriptMethod, byte[]> contents,
+                              final ScriptBody parsed, final Map<ScriptMethod, byte[]> snapshot) throws ScriptWorkException {
+        Map<String, ScriptMethod> loaded = new HashMap<>();
+        if (previous != null) {
+            for (ScriptMethod method : previous.getMethods()) {
+                loaded.put(signature(method), method);
+            }
+        }
+
+        boolean lazy = Arrays.asList(options).contains(LoadOption.LAZY_METHODS);
+        List<ScriptMethod> methods = new ArrayList<>();
+        for (ScriptMethod method : parsed.getMethods()) {
+            ScriptMethod existing = loaded.get(signature(method));
+            if (existing != null && contents != null && contents.containsKey(existing)) {
+                byte[] content = contents.get(existing);
+                if (content != null && Arrays.equals(content, ScriptCache.hash(method.getContent()))) {
+                    snapshot.put(existing, content);
+                    methods.add(existing);
+                    continue;
+                }
+            } else if (existing != null && existing.getContent().equals(method.getContent())) {
+                methods.add(existing);
+                continue;
+            }
+
+            if (!lazy) method.compile();
+            methods.add(method);
+        }
+
+        return new ScriptBody(parsed.getVersion(), parsed.getImports(), methods);
+    }
+
+    private void remove(final String name) {
+        String prefix = name + "/";
+        synchronized (publishing) {
+            Map<String, ScriptBody> scripts = new HashMap<>(this.scripts);
+            Map<String, Exception> errors = new HashMap<>(this.errors);
+            Map<String, Map<ScriptMethod, byte[]>> snapshots = new HashMap<>(this.snapshots);
+            scripts.keySet().removeIf((key) -> key.equals(name) || key.startsWith(prefix));
+            errors.keySet().removeIf((key) -> key.equals(name) || key.startsWith(prefix));
+            snapshots.keySet().removeIf((key) -> key.equals(name) || key.startsWith(prefix));
+
+            this.scripts = Collections.unmodifiableMap(scripts);
+            this.errors = Collections.unmodifiableMap(errors);
+            this.snapshots = Collections.unmodifiableMap(snapshots);
+        }
+    }
+
+    private boolean isMapped() {
+        return Arrays.asList(options).contains(LoadOption.MEMORY_MAPPED);
+    }
+
+    private static Map<ScriptMethod, byte[]> snapshot(final ScriptBody body) {
+        Map<ScriptMethod, byte[]> snapshot = new HashMap<>();
+        for (ScriptMethod method : body.getMethods()) {
+            snapshot.put(method, (method.isCompiled() ? ScriptCache.hash(method.getContent()) : null));
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private static String signature(final ScriptMethod method) {
+        StringBuilder builder = new StringBuilder(method.getName()).append('(');
+        for (int i = 0; i < method.getParameters(); i++) {
+            if (i > 0) builder.append(',');
+            builder.append(method.getParameter(i));
+        }
+
+        return builder.append(')').toString();
+    }
+
+    /**
+     * Represents the scan of a directory. Every
+     * sub-directory and script is loaded on its own
+     * task
+     */
+    @SuppressWarnings("serial")
+    private final class ScanTask extends RecursiveAction {
+
+        private final Path path;
+        private final ConcurrentMap<String, ScriptBody> loaded;
+        private final ConcurrentMap<String, Exception> failed;
+        private final ConcurrentMap<String, Map<ScriptMethod, byte[]>> contents;
+
+        /**
+         * Initialize the task
+         *
+         * @param path the directory or script to load
+         * @param loaded the loaded scripts
+         * @param failed the errors of the scripts
+         * @param contents the content snapshots of
+         *                 the memory mapped scripts
+         */
+        ScanTask(final Path path, final ConcurrentMap<String, ScriptBody> loaded,
+                 final ConcurrentMap<String, Exception> failed,
+                 final ConcurrentMap<String, Map<ScriptMethod, byte[]>> contents) {
+            this.path = path;
+            this.loaded = loaded;
+            this.failed = failed;
+            this.contents = contents;
+        }
+
+        @Override
+        protected void compute() {
+            if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                String name = nameOf(path);
+                try {
+                    ScriptBody body = parse(path, false, true, cache);
+                    if (isMapped()) contents.put(name, snapshot(body));
+
+                    loaded.put(name, body);
+                } catch (ScriptException | RuntimeException ex) {
+                    failed.put(name, ex);
+                }
+
+                return;
+            }
+
+            List<ScanTask> tasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS) ||
+                            (entry.getFileName().toString().endsWith(EXTENSION) && Files.isRegularFile(entry))) {
+                        tasks.add(new ScanTask(entry, loaded, failed, contents));
+                    }
+                }
+            } catch (IOException ex) {
+                failed.put(nameOf(path), new ScriptWorkException(ex));
+                return;
+            }
+
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package es.karmadev.api.script;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.exception.ScriptException;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Script watcher. The watcher watches the directory
+ * tree of a {@link ScriptRepository}, and reloads the
+ * scripts which are created, modified or deleted.
+ * <p>
+ * Changes are collected until the directory has been quiet
+ * for a moment, so a file which is written many times in a
+ * row is reloaded only once. Reloads run on the watcher thread,
+ * and are published by the repository, so running scripts are
+ * never locked nor interrupted by a reload
+ */
+public final class ScriptWatcher implements AutoCloseable {
+
+    private final static long QUIET_MILLIS = 100;
+    private final static AtomicInteger COUNT = new AtomicInteger();
+
+    private final ScriptRepository repository;
+    private final ReloadListener listener;
+    private final WatchService service;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    /**
+     * Initialize the watcher
+     *
+     * @param repository the repository to reload
+     *                   the scripts of
+     * @param listener the listener of the reloads
+     * @throws IOException if the directory tree
+     * cannot be watched
+     */
+    ScriptWatcher(final ScriptRepository repository, final ReloadListener listener) throws IOException {
+        this.repository = repository;
+        this.listener = listener;
+
+        Path directory = repository.getDirectory();
+        this.service = directory.getFileSystem().newWatchService();
+        try {
+            register(directory, null);
+        } catch (IOException ex) {
+            service.close();
+            throw ex;
+        }
+
+        this.thread = new Thread(this::watch, "script-watcher-" + COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get if the watcher is still
+     * watching the directory tree
+     *
+     * @return if the watcher is running
+     */
+    public boolean isRunning() {
+        return !closed && thread.isAlive();
+    }
+
+    /**
+     * Stop watching the directory tree. A
+     * reload which is running is completed
+     * before this returns
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            service.close();
+        } catch (IOException ignored) {}
+
+        boolean interrupted = false;
+        while (thread.isAlive() && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(service.take(), changed);
+
+                WatchKey key;
+                while ((key = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+
+                for (Path file : changed) {
+                    reload(file);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {}
+    }
+
+    private void collect(final WatchKey key, final Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.add(repository.getDirectory());
+                continue;
+            }
+            if (directory == null) continue;
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path, changed);
+                } catch (IOException ex) {
+                    listener.failed(repository.nameOf(path), ex);
+                }
+                continue;
+            }
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE ||
+                    path.getFileName().toString().endsWith(ScriptRepository.EXTENSION)) {
+                changed.add(path);
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void reload(final Path file) {
+        if (file.equals(repository.getDirectory())) {
+            Map<String, Exception> errors;
+            try {
+                errors = repository.load();
+            } catch (RuntimeException ex) {
+                listener.failed("", ex);
+                return;
+            }
+
+            for (String name : repository.getScripts().keySet()) {
+                listener.reloaded(name, repository.get(name));
+            }
+            for (Map.Entry<String, Exception> error : errors.entrySet()) {
+                listener.failed(error.getKey(), error.getValue());
+            }
+
+            return;
+        }
+        if (Files.isDirectory(file)) return;
+
+        String name = repository.nameOf(file);
+        try {
+            ScriptBody body = repository.reload(file);
+            listener.reloaded(name, body);
+        } catch (ScriptException | RuntimeException ex) {
+            listener.failed(name, ex);
+        }
+    }
+
+    private void register(final Path root, final Set<Path> changed) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attributes) throws IOException {
+                WatchKey key = directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, directory);
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                if (changed != null && attributes.isRegularFile() &&
+                        file.getFileName().toString().endsWith(ScriptRepository.EXTENSION)) {
+                    changed.add(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
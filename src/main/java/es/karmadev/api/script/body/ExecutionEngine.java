@@ -0,0 +1,32 @@
+package es.karmadev.api.script.body;
+
+/**
+ * Represents the engine which runs
+ * the methods of a script body
+ */
+public enum ExecutionEngine {
+    /**
+     * Run the method instructions
+     * through the interpreter
+     */
+    INTERPRETER,
+    /**
+     * Encode each method into KScript bytecode
+     * the first time it's called, and run the
+     * bytecode on the bytecode virtual machine
+     */
+    BYTECODE,
+    /**
+     * Compile each method into a JVM class
+     * the first time it's called, and run the
+     * compiled class
+     */
+    COMPILED,
+    /**
+     * Run each method in the interpreter until it
+     * becomes hot, and then compile it into a JVM class
+     * in the background, as defined by the body
+     * {@link TieringPolicy}
+     */
+    TIERED
+}
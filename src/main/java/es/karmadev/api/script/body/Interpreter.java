@@ -0,0 +1,246 @@
+package es.karmadev.api.script.body;
+
+import es.karmadev.api.script.body.bytecode.BytecodeMethod;
+import es.karmadev.api.script.body.bytecode.BytecodeVM;
+import es.karmadev.api.script.body.compiler.CompiledMethod;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.SelfCallInstruction;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.exec.ExecutionContext;
+import es.karmadev.api.script.lang.variables.ExitVoidReturn;
+import es.karmadev.api.script.lang.variables.VoidReturn;
+
+import java.util.Arrays;
+
+/**
+ * Script interpreter. The interpreter runs script methods
+ * on an explicit frame stack, so a call from a script method
+ * to another one pushes a frame instead of recursing on the
+ * Java stack. A call which is the last statement of a method
+ * replaces the caller frame instead.
+ * <p>
+ * Bytecode methods run on the same frame stack, so a call between
+ * two of them doesn't recurse on the Java stack either, and a tail
+ * call replaces its caller frame as well.
+ * <p>
+ * Each thread has its own frame stack, which is reused by every
+ * run on the thread. Compiled methods take a slot of the stack
+ * while they run, so the body maximum call depth applies to every
+ * engine, but their calls to other script methods recurse on the
+ * Java stack through {@link ScriptMethod#invoke(ScriptBody, Variable...)},
+ * and are not tail call eliminated. A deep recursion on the compiled
+ * engine may then need a bigger thread stack, or a lower maximum
+ * call depth
+ */
+final class Interpreter {
+
+    private final static ThreadLocal<Interpreter> CURRENT = ThreadLocal.withInitial(Interpreter::new);
+
+    private Instruction[][] code = new Instruction[16][];
+    private BytecodeMethod[] bytecode = new BytecodeMethod[16];
+    private Variable[][] frames = new Variable[16][];
+    private int[] pcs = new int[16];
+    private int size;
+
+    private Interpreter() {}
+
+    /**
+     * Get the interpreter of the
+     * current thread
+     *
+     * @return the current interpreter
+     */
+    static Interpreter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Take a slot of the stack for a method which
+     * is run by another engine
+     *
+     * @param body the body
+     * @param method the method
+     * @throws ScriptWorkException if the maximum call
+     * depth is exceeded
+     */
+    void enter(final ScriptBody body, final ScriptMethod method) throws ScriptWorkException {
+        push(body, method, null, null, null);
+    }
+
+    /**
+     * Release the slot taken by a method
+     * run by another engine
+     */
+    void leave() {
+        pop();
+    }
+
+    /**
+     * Run a method
+     *
+     * @param body the body
+     * @param method the method
+     * @param instructions the method instructions
+     * @param frame the method frame
+     * @return the method return
+     * @throws ScriptRuntimeException if there's an error
+     * during the script execution
+     */
+    Object run(final ScriptBody body, final ScriptMethod method, final Instruction[] instructions,
+               final Variable[] frame) throws ScriptRuntimeException {
+        int base = size;
+        push(body, method, instructions, null, frame);
+
+        ExecutionContext context = ExecutionContext.current();
+        boolean tiered = body.getEngine() == ExecutionEngine.TIERED;
+        try {
+            while (size > base) {
+                int top = size - 1;
+                Instruction[] current = code[top];
+                int pc = pcs[top];
+                if (pc == current.length) {
+                    pop();
+                    continue;
+                }
+
+                if (context != null) context.checkpoint();
+
+                Instruction instruction = current[pc];
+                pcs[top] = pc + 1;
+
+                if (instruction instanceof SelfCallInstruction) {
+                    SelfCallInstruction call = (SelfCallInstruction) instruction;
+
+                    Object target = call.getTarget(body);
+                    if (target instanceof ScriptMethod) {
+                        ScriptMethod callee = (ScriptMethod) target;
+                        Variable[] values = call.resolveArguments(frames[top]);
+
+                        Instruction[] calleeCode = callee.compile();
+                        Variable[] calleeFrame = callee.frame(body, values);
+                        if (tiered) {
+                            CompiledMethod promoted = callee.promote(body, calleeCode);
+                            if (promoted != null) {
+                                Object response;
+
+                                push(body, callee, null, null, null);
+                                try {
+                                    response = promoted.invoke(body, calleeFrame);
+                                } finally {
+                                    pop();
+                                }
+
+                                if (response instanceof ExitVoidReturn) return response;
+                                continue;
+                            }
+                        }
+
+                        if (pc + 1 == current.length) {
+                            code[top] = calleeCode;
+                            frames[top] = calleeFrame;
+                            pcs[top] = 0;
+                        } else {
+                            push(body, callee, calleeCode, null, calleeFrame);
+                        }
+                        continue;
+                    }
+                }
+
+                Object response = instruction.execute(body, frames[top]);
+                if (response != null) {
+                    return response;
+                }
+            }
+
+            return VoidReturn.get();
+        } finally {
+            while (size > base) {
+                pop();
+            }
+        }
+    }
+
+    /**
+     * Run a bytecode method
+     *
+     * @param body the body
+     * @param method the method
+     * @param bytecode the method bytecode
+     * @param frame the method frame
+     * @return the method return
+     * @throws ScriptRuntimeException if there's an error
+     * during the script execution
+     */
+    Object run(final ScriptBody body, final ScriptMethod method, final BytecodeMethod bytecode,
+               final Variable[] frame) throws ScriptRuntimeException {
+        int base = size;
+        push(body, method, null, bytecode, frame);
+
+        try {
+            while (size > base) {
+                int top = size - 1;
+
+                Object response = BytecodeVM.run(body, this.bytecode[top], frames[top], pcs[top]);
+                if (response instanceof BytecodeVM.Call) {
+                    BytecodeVM.Call call = (BytecodeVM.Call) response;
+                    ScriptMethod callee = call.getMethod();
+
+                    BytecodeMethod calleeCode = callee.getBytecode();
+                    Variable[] calleeFrame = callee.frame(body, call.getArguments());
+
+                    if (call.isTail()) {
+                        this.bytecode[top] = calleeCode;
+                        frames[top] = calleeFrame;
+                        pcs[top] = 0;
+                    } else {
+                        pcs[top] = call.getResume();
+                        push(body, callee, null, calleeCode, calleeFrame);
+                    }
+                    continue;
+                }
+
+                if (response instanceof ExitVoidReturn) {
+                    return response;
+                }
+
+                pop();
+            }
+
+            return VoidReturn.get();
+        } finally {
+            while (size > base) {
+                pop();
+            }
+        }
+    }
+
+    private void push(final ScriptBody body, final ScriptMethod method, final Instruction[] instructions,
+                      final BytecodeMethod bytecode, final Variable[] frame) throws ScriptWorkException {
+        if (size >= body.getMaxDepth()) {
+            throw new ScriptWorkException("Maximum call depth of " + body.getMaxDepth() + " exceeded while calling " +
+                    method.getName());
+        }
+
+        if (size == pcs.length) {
+            int capacity = Math.min(size * 2, Math.max(body.getMaxDepth(), size + 1));
+            code = Arrays.copyOf(code, capacity);
+            this.bytecode = Arrays.copyOf(this.bytecode, capacity);
+            frames = Arrays.copyOf(frames, capacity);
+            pcs = Arrays.copyOf(pcs, capacity);
+        }
+
+        code[size] = instructions;
+        this.bytecode[size] = bytecode;
+        frames[size] = frame;
+        pcs[size] = 0;
+        size++;
+    }
+
+    private void pop() {
+        size--;
+        code[size] = null;
+        bytecode[size] = null;
+        frames[size] = null;
+    }
+}
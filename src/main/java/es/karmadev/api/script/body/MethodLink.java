@@ -0,0 +1,57 @@
+package es.karmadev.api.script.body;
+
+import es.karmadev.api.script.body.compiler.CompiledMethod;
+import es.karmadev.api.script.body.compiler.JvmCompiler;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents a method linked to a {@link ScriptLinkage}.
+ * The link holds the compiled code of the method for the
+ * linkage, and the state of its promotion by the tiered
+ * engine
+ */
+final class MethodLink {
+
+    final ScriptLinkage linkage;
+    final AtomicBoolean promoting = new AtomicBoolean();
+
+    volatile CompiledMethod compiled;
+    volatile boolean failed;
+    int invocations;
+
+    /**
+     * Initialize the link
+     *
+     * @param linkage the linkage the method is linked to
+     */
+    MethodLink(final ScriptLinkage linkage) {
+        this.linkage = linkage;
+    }
+
+    /**
+     * Get the compiled method, compiling it
+     * if it has not been compiled yet. The method
+     * is compiled only once per linkage
+     *
+     * @param body the body to compile the method for
+     * @param instructions the method instructions
+     * @return the compiled method
+     * @throws ScriptWorkException if the method
+     * fails to compile
+     */
+    CompiledMethod compile(final ScriptBody body, final Instruction[] instructions) throws ScriptWorkException {
+        CompiledMethod compiled = this.compiled;
+        if (compiled != null) return compiled;
+
+        synchronized (this) {
+            if (this.compiled == null) {
+                this.compiled = JvmCompiler.compile(body, instructions);
+            }
+
+            return this.compiled;
+        }
+    }
+}
@@ -1,21 +1,50 @@
 package es.karmadev.api.script.body;
 
 import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.body.func.FunctionIndex;
 import es.karmadev.api.script.exception.ScriptRuntimeException;
 import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.exec.ExecutionContext;
+import es.karmadev.api.script.exec.OutputSink;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Represents a script body
+ * Represents a script body.
+ * <p>
+ * A script body is immutable, and can be safely
+ * shared and run from many threads at the same time. Its
+ * imports, methods and indexes are built when the body is
+ * created and never change, and every method invocation
+ * keeps its state in its own frame. Lazy methods are compiled
+ * once, by the first thread which calls them. Thread safety
+ * of the import functions is up to each function
  */
 public class ScriptBody {
 
+    /**
+     * The default maximum depth of
+     * script method calls
+     */
+    public final static int DEFAULT_MAX_DEPTH = 1024;
+
     private final int version;
-    private final List<Import> imports = new ArrayList<>();
-    private final List<ScriptMethod> methods = new ArrayList<>();
+    private final List<Import> imports;
+    private final List<ScriptMethod> methods;
+    private final Map<String, Import> importIndex;
+    private final Map<String, ScriptMethod[]> methodIndex;
+    private final FunctionIndex functions;
+    private final ScriptMethod main;
+    private final Variable self;
+    private final ExecutionEngine engine;
+    private final TieringPolicy tiering;
+    private final int maxDepth;
+    private final ScriptLinkage linkage;
 
     /**
      * Initialize the script body
@@ -25,38 +54,199 @@ public class ScriptBody {
      * @param methods the script methods
      */
     public ScriptBody(final int version, final Collection<Import> imports, final Collection<ScriptMethod> methods) {
+        this(version, imports, methods, ExecutionEngine.INTERPRETER);
+    }
+
+    /**
+     * Initialize the script body
+     *
+     * @param version the script schema version
+     * @param imports the script imports
+     * @param methods the script methods
+     * @param engine the engine which runs the methods
+     */
+    public ScriptBody(final int version, final Collection<Import> imports, final Collection<ScriptMethod> methods,
+                      final ExecutionEngine engine) {
+        this(version, imports, methods, engine, TieringPolicy.DEFAULT);
+    }
+
+    /**
+     * Initialize the script body
+     *
+     * @param version the script schema version
+     * @param imports the script imports
+     * @param methods the script methods
+     * @param engine the engine which runs the methods
+     * @param tiering the policy of the tiered engine
+     */
+    public ScriptBody(final int version, final Collection<Import> imports, final Collection<ScriptMethod> methods,
+                      final ExecutionEngine engine, final TieringPolicy tiering) {
+        this(version, imports, methods, engine, tiering, DEFAULT_MAX_DEPTH, new ScriptLinkage());
+    }
+
+    private ScriptBody(final int version, final Collection<Import> imports, final Collection<ScriptMethod> methods,
+                       final ExecutionEngine engine, final TieringPolicy tiering, final int maxDepth,
+                       final ScriptLinkage linkage) {
         this.version = version;
-        this.imports.addAll(imports);
-        this.methods.addAll(methods);
+        this.engine = engine;
+        this.tiering = tiering;
+        this.maxDepth = maxDepth;
+        this.linkage = linkage;
+        this.imports = Collections.unmodifiableList(new ArrayList<>(imports));
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+
+        Map<String, Import> importIndex = new HashMap<>();
+        for (Import imp : this.imports) {
+            importIndex.putIfAbsent(imp.getName(), imp);
+        }
+
+        this.importIndex = Collections.unmodifiableMap(importIndex);
+
+        Map<String, List<ScriptMethod>> overloads = new HashMap<>();
+        for (ScriptMethod method : this.methods) {
+            overloads.computeIfAbsent(method.getName(), (name) -> new ArrayList<>()).add(method);
+        }
+
+        Map<String, ScriptMethod[]> methodIndex = new HashMap<>();
+        for (Map.Entry<String, List<ScriptMethod>> entry : overloads.entrySet()) {
+            methodIndex.put(entry.getKey(), entry.getValue().toArray(new ScriptMethod[0]));
+        }
+        this.methodIndex = methodIndex;
+        this.functions = FunctionIndex.of(this.imports);
+        this.main = this.methods.stream()
+                .filter((method) -> method.getName().equals("main") && method.getParameters() == 0)
+                .findAny().orElse(null);
+        this.self = Variable.wrap(this, ScriptBody.class);
+    }
+
+    /**
+     * Get the script schema version
+     *
+     * @return the schema version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the engine which runs
+     * the script methods
+     *
+     * @return the script engine
+     */
+    public ExecutionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get a copy of this body which runs its
+     * methods with the specified engine. The
+     * copy shares the imports and methods of
+     * this body
+     *
+     * @param engine the engine
+     * @return the script body
+     */
+    public ScriptBody withEngine(final ExecutionEngine engine) {
+        if (engine == this.engine) return this;
+        return new ScriptBody(version, imports, methods, engine, tiering, maxDepth, linkage);
+    }
+
+    /**
+     * Get the policy of the tiered engine
+     *
+     * @return the tiering policy
+     */
+    public TieringPolicy getTiering() {
+        return tiering;
+    }
+
+    /**
+     * Get a copy of this body which runs its
+     * methods with the tiered engine and the
+     * specified policy. The copy shares the imports
+     * and methods of this body
+     *
+     * @param tiering the tiering policy
+     * @return the script body
+     */
+    public ScriptBody withTiering(final TieringPolicy tiering) {
+        return new ScriptBody(version, imports, methods, ExecutionEngine.TIERED, tiering, maxDepth, linkage);
+    }
+
+    /**
+     * Get the maximum depth of script
+     * method calls
+     *
+     * @return the maximum call depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Get a copy of this body which limits the
+     * depth of script method calls. The copy shares
+     * the imports and methods of this body
+     *
+     * @param maxDepth the maximum call depth
+     * @return the script body
+     */
+    public ScriptBody withMaxDepth(final int maxDepth) {
+        return new ScriptBody(version, imports, methods, engine, tiering, Math.max(1, maxDepth), linkage);
+    }
+
+    /**
+     * Get the linkage of the body. The copies
+     * of this body share its linkage
+     *
+     * @return the body linkage
+     */
+    public ScriptLinkage getLinkage() {
+        return linkage;
+    }
+
+    /**
+     * Get the script imports
+     *
+     * @return the unmodifiable script imports
+     */
+    public List<Import> getImports() {
+        return imports;
+    }
+
+    /**
+     * Get the script methods
+     *
+     * @return the unmodifiable script methods
+     */
+    public List<ScriptMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Get the variable which holds this
+     * body. The variable is shared by every
+     * method invocation
+     *
+     * @return the body variable
+     */
+    Variable self() {
+        return self;
     }
 
     /**
      * Find a function through all the
-     * imports. This method will return the first
-     * match
+     * imports. The functions are indexed by name and
+     * parameters when the body is created, so this
+     * does not iterate through the imports
      *
      * @param funcName the function to call
      * @param parameters the number of parameters
      * @return the matching function
      */
     public Function findFunction(final String funcName, final int parameters) {
-        Function match = null;
-        for (Import imp : imports) {
-            for (Function func : imp.getFunctions()) {
-                if (func.getName().equals(funcName)) {
-                    int params = func.getParameters();
-                    if (func.isMinParameters()) {
-                        if (params <= parameters) {
-                            match = func;
-                        }
-                    } else {
-                        if (params == parameters) return func;
-                    }
-                }
-            }
-        }
-
-        return match;
+        return functions.get(funcName, parameters);
     }
 
     /**
@@ -66,54 +256,96 @@ public class ScriptBody {
      * @return the import
      */
     public Import getImport(final String name) {
-        return imports.stream().filter((imp) -> imp.getName().equals(name))
-                .findAny().orElse(null);
+        return importIndex.get(name);
     }
 
     /**
-     * Get a method
+     * Get a method. The methods are indexed by name
+     * when the body is created, so this only iterates
+     * through the methods sharing the name. A lazy method
+     * is compiled the first time it's resolved
      *
      * @param name the method name
-     * @return the method
-     */
-    public ScriptMethod getMethod(final String name, final Object... parameters) {
-        return methods.stream()
-                .filter((method) -> {
-                    if (method.getName().equals(name)) {
-                        if (method.getParameters() == parameters.length) return true;
-
-                        int count = 0;
-                        for (int i = 0; i < method.getParameters(); i++) {
-                            String nm = method.getParameter(i);
-                            if (nm.endsWith("::")) {
-                                if (count >= parameters.length) return true;
-                            }
-
-                            count++;
-                        }
-                    }
-
-                    return false;
-                })
-                .findAny().orElse(null);
+     * @param parameters the call arguments
+     * @return the method, or null if there's no
+     * matching method
+     * @throws ScriptWorkException if the method body
+     * has invalid syntax
+     */
+    public ScriptMethod getMethod(final String name, final Object... parameters) throws ScriptWorkException {
+        ScriptMethod[] overloads = methodIndex.get(name);
+        if (overloads == null) return null;
+
+        for (ScriptMethod method : overloads) {
+            if (matches(method, parameters.length)) {
+                method.compile();
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean matches(final ScriptMethod method, final int arguments) {
+        if (method.getParameters() == arguments) return true;
+
+        int count = 0;
+        for (int i = 0; i < method.getParameters(); i++) {
+            String nm = method.getParameter(i);
+            if (nm.endsWith("::")) {
+                if (arguments >= count) return true;
+            }
+
+            count++;
+        }
+
+        return false;
     }
 
     /**
      * Initialize the script. This always
-     * means a call to main() script method
+     * means a call to main() script method. The
+     * script can be initialized many times, and from
+     * many threads at the same time
      *
      * @throws ScriptRuntimeException if there's any problem while
      * running the script
      */
     public void init() throws ScriptRuntimeException {
-        ScriptMethod main = methods.stream()
-                .filter((method) -> method.getName().equals("main") && method.getParameters() == 0)
-                .findAny().orElse(null);
-
         if (main == null) throw new ScriptWorkException("Cannot run script. Missing main() method");
         main.invoke(this);
     }
 
+    /**
+     * Initialize the script, writing its
+     * output to the specified sink instead of the
+     * sink of the current thread
+     *
+     * @param output the run output sink
+     * @throws ScriptRuntimeException if there's any problem while
+     * running the script
+     */
+    public void init(final OutputSink output) throws ScriptRuntimeException {
+        init(new ExecutionContext(output));
+    }
+
+    /**
+     * Initialize the script in the specified
+     * context. The script writes its output to the
+     * context sink, and stops at its next statement once
+     * the context is cancelled. The sink is flushed once
+     * the script is done
+     *
+     * @param context the run context
+     * @throws ScriptRuntimeException if there's any problem while
+     * running the script
+     */
+    public void init(final ExecutionContext context) throws ScriptRuntimeException {
+        try (ExecutionContext.Scope ignored = context.open()) {
+            init();
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("ScriptBody@")
@@ -0,0 +1,41 @@
+package es.karmadev.api.script.body;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the linkage of a script body: the imports
+ * and methods its calls are resolved against. A body and
+ * its copies made through {@link ScriptBody#withEngine(ExecutionEngine)},
+ * {@link ScriptBody#withTiering(TieringPolicy)} and
+ * {@link ScriptBody#withMaxDepth(int)} share the same linkage,
+ * so everything resolved or compiled for one of them is valid
+ * for the others.
+ * <p>
+ * A method can be shared by bodies with different linkages,
+ * for instance when a reloaded script keeps its unchanged
+ * methods. The compiled code of the method is kept per linkage,
+ * so every linkage compiles the method once
+ */
+public final class ScriptLinkage {
+
+    private final ConcurrentMap<ScriptMethod, MethodLink> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize the linkage
+     */
+    ScriptLinkage() {}
+
+    /**
+     * Get the link of a method
+     *
+     * @param method the method
+     * @return the method link
+     */
+    MethodLink link(final ScriptMethod method) {
+        MethodLink link = methods.get(method);
+        if (link != null) return link;
+
+        return methods.computeIfAbsent(method, (m) -> new MethodLink(this));
+    }
+}
@@ -1,35 +1,47 @@
 package es.karmadev.api.script.body;
 
-import es.karmadev.api.script.ScriptParser;
-import es.karmadev.api.script.body.func.Function;
-import es.karmadev.api.script.exception.body.NoSuchDefException;
-import es.karmadev.api.script.exception.body.NoSuchImportException;
+import es.karmadev.api.script.body.bytecode.BytecodeCompiler;
+import es.karmadev.api.script.body.bytecode.BytecodeMethod;
+import es.karmadev.api.script.body.compiler.CompiledMethod;
+import es.karmadev.api.script.body.instruction.ConstantPool;
+import es.karmadev.api.script.body.instruction.FrameLayout;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.MethodCompiler;
+import es.karmadev.api.script.exception.InvalidSyntaxException;
 import es.karmadev.api.script.exception.ScriptRuntimeException;
-import es.karmadev.api.script.exception.body.NoSuchInvokeException;
-import es.karmadev.api.script.exception.body.NoSuchMethodException;
 import es.karmadev.api.script.exception.body.ScriptWorkException;
 import es.karmadev.api.script.lang.NullReference;
-import es.karmadev.api.script.lang.variables.ExitVoidReturn;
-import es.karmadev.api.script.lang.variables.VoidReturn;
+import es.karmadev.api.script.parser.ScriptLexer;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Represents a script method. A script method
  * (unlike functions) are methods which are defined
  * on and by the script itself.
+ * <p>
+ * A script method is immutable once it has been compiled,
+ * and can be invoked from many threads at the same time.
+ * Every invocation gets its own frame, so no state is shared
+ * between invocations
  */
 public class ScriptMethod {
 
-    private final static Pattern methodCall = Pattern.compile("^(?<import>\\w+)#(?<function>.*)\\((?<parameters>.*)\\)$", Pattern.CASE_INSENSITIVE);
-    private final static Pattern selfMethodCall = Pattern.compile("^(this#)?(?<function>.*)\\((?<parameters>.*)\\)$", Pattern.CASE_INSENSITIVE);
-
     private final String name;
-    private final String content;
+    private final CharSequence source;
+    private final int start;
+    private final int end;
     private final String[] parameters;
+    private final FrameLayout layout;
+
+    private volatile Instruction[] instructions;
+    private volatile BytecodeMethod bytecode;
+    private volatile MethodLink link;
+    private ScriptLexer pending;
+    private ConstantPool pendingPool;
+    private Set<String> pendingImports;
 
     /**
      * Initialize the method
@@ -39,9 +51,102 @@ public class ScriptMethod {
      * @param parameters the method parameters
      */
     public ScriptMethod(final String name, final String content, final String... parameters) {
+        this(name, content, new ConstantPool(), parameters);
+    }
+
+    /**
+     * Initialize the method
+     *
+     * @param name the method name
+     * @param content the method content
+     * @param pool the script constant pool
+     * @param parameters the method parameters
+     */
+    public ScriptMethod(final String name, final String content, final ConstantPool pool, final String... parameters) {
+        this.name = name;
+        this.source = content;
+        this.start = 0;
+        this.end = content.length();
+        this.parameters = parameters.clone();
+        this.layout = new FrameLayout(parameters);
+
+        try {
+            this.instructions = MethodCompiler.compile(content, layout, pool);
+        } catch (InvalidSyntaxException ex) {
+            throw new ScriptWorkException(ex);
+        }
+    }
+
+    /**
+     * Initialize an already compiled method. The method
+     * content is not copied, the method only keeps its
+     * range in the script source
+     *
+     * @param name the method name
+     * @param source the script source
+     * @param start the method content start offset
+     * @param end the method content end offset
+     * @param layout the method frame layout
+     * @param instructions the method instructions, compiled
+     *                     against the frame layout
+     * @param parameters the method parameters
+     */
+    public ScriptMethod(final String name, final CharSequence source, final int start, final int end,
+                        final FrameLayout layout, final Instruction[] instructions, final String... parameters) {
+        this.name = name;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.parameters = parameters.clone();
+        this.layout = layout;
+        this.instructions = instructions;
+    }
+
+    /**
+     * Initialize a lazy method. The method body is
+     * compiled the first time the method is resolved
+     * or invoked
+     *
+     * @param name the method name
+     * @param source the script source
+     * @param start the method content start offset
+     * @param end the method content end offset
+     * @param body the lexer to read the method body from
+     * @param pool the script constant pool
+     * @param parameters the method parameters
+     */
+    public ScriptMethod(final String name, final CharSequence source, final int start, final int end,
+                        final ScriptLexer body, final ConstantPool pool, final String... parameters) {
+        this(name, source, start, end, body, pool, Collections.emptySet(), parameters);
+    }
+
+    /**
+     * Initialize a lazy method. The method body is
+     * compiled the first time the method is resolved
+     * or invoked
+     *
+     * @param name the method name
+     * @param source the script source
+     * @param start the method content start offset
+     * @param end the method content end offset
+     * @param body the lexer to read the method body from
+     * @param pool the script constant pool
+     * @param imports the names of the imports
+     *                declared by the script
+     * @param parameters the method parameters
+     */
+    public ScriptMethod(final String name, final CharSequence source, final int start, final int end,
+                        final ScriptLexer body, final ConstantPool pool, final Set<String> imports,
+                        final String... parameters) {
         this.name = name;
-        this.content = content;
-        this.parameters = parameters;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.parameters = parameters.clone();
+        this.layout = new FrameLayout(parameters);
+        this.pending = body;
+        this.pendingPool = pool;
+        this.pendingImports = imports;
     }
 
     /**
@@ -54,12 +159,117 @@ public class ScriptMethod {
     }
 
     /**
-     * Get the method raw content
+     * Get the method raw content. The content
+     * is read from the script source every time
+     * this is called
      *
      * @return the method content
      */
     public String getContent() {
-        return content;
+        return source.subSequence(start, end).toString();
+    }
+
+    /**
+     * Get the offset where the method
+     * content starts in the script source
+     *
+     * @return the content start offset
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the offset where the method
+     * content ends in the script source
+     *
+     * @return the content end offset
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the method compiled instructions
+     *
+     * @return the method instructions
+     */
+    public Instruction[] getInstructions() {
+        return compile().clone();
+    }
+
+    /**
+     * Get the amount of times the method has been
+     * invoked through the tiered engine before being
+     * promoted, on the linkage it was last invoked from.
+     * The counter is not synchronized, so it's only an
+     * approximation
+     *
+     * @return the amount of interpreted invocations
+     */
+    public int getInvocations() {
+        MethodLink link = this.link;
+        return (link == null ? 0 : link.invocations);
+    }
+
+    /**
+     * Get the method bytecode. The bytecode
+     * is encoded the first time it's requested
+     *
+     * @return the method bytecode
+     * @throws ScriptWorkException if the method body
+     * has invalid syntax
+     */
+    public BytecodeMethod getBytecode() throws ScriptWorkException {
+        BytecodeMethod bytecode = this.bytecode;
+        if (bytecode == null) {
+            bytecode = BytecodeCompiler.compile(compile(), layout.size());
+            this.bytecode = bytecode;
+        }
+
+        return bytecode;
+    }
+
+    /**
+     * Get if the method body has
+     * already been compiled
+     *
+     * @return if the method is compiled
+     */
+    public boolean isCompiled() {
+        return instructions != null;
+    }
+
+    /**
+     * Compile the method body, if it has
+     * not been compiled yet. The body is read
+     * from a fork of the method lexer, so a body
+     * with invalid syntax reports the same error
+     * every time it's compiled
+     *
+     * @return the method instructions
+     * @throws ScriptWorkException if the method body
+     * has invalid syntax
+     */
+    public Instruction[] compile() throws ScriptWorkException {
+        Instruction[] compiled = instructions;
+        if (compiled != null) return compiled;
+
+        synchronized (this) {
+            if (instructions == null) {
+                try {
+                    instructions = MethodCompiler.compile(pending.fork(pending.getEnd()), layout, pendingPool, pendingImports, false);
+                } catch (InvalidSyntaxException ex) {
+                    throw new ScriptWorkException(ex);
+                }
+
+                pending = null;
+                pendingPool = null;
+                pendingImports = null;
+            }
+
+            return instructions;
+        }
     }
 
     /**
@@ -93,209 +303,142 @@ public class ScriptMethod {
      * during the script execution
      */
     public Object invoke(final ScriptBody body, final Variable... parameters) throws ScriptRuntimeException {
-        Map<String, Variable> param = new HashMap<>();
-        for (int i = 0; i < this.parameters.length; i++) {
-            String key = this.parameters[i];
-            if (key.endsWith("::")) {
-                if (i < parameters.length) {
-                    Variable[] vars = new Variable[parameters.length - i];
-                    int wIndex = 0;
-                    for (int j = i; j < parameters.length; j++) {
-                        vars[wIndex++] = parameters[j];
-                    }
-
-                    param.put(key.substring(0, key.length() - 2), Variable.wrap(vars, Variable[].class));
-                }
-
-                i = this.parameters.length;
-            }
-
-            Variable value = NullReference.get();
-
-            if (i < parameters.length) {
-                value = parameters[i];
-            }
+        Instruction[] instructions = compile();
+        Variable[] frame = frame(body, parameters);
+        Interpreter interpreter = Interpreter.current();
 
-            param.put(key, value);
-        }
-
-        param.put("this", Variable.wrap(body, ScriptBody.class));
-
-        String[] data = content.split("\n");
-        for (String line : data) {
-            Matcher methodCallMath = methodCall.matcher(line);
-            Matcher selfMethodCallMath = selfMethodCall.matcher(line);
-
-            if (methodCallMath.matches() || selfMethodCallMath.matches()) {
-                String impName;
-                String funcName;
-                String rawContent;
-                if (methodCallMath.matches()) {
-                    impName = methodCallMath.group("import");
-                    funcName = methodCallMath.group("function");
-                    rawContent = methodCallMath.group("parameters");
-                } else {
-                    impName = null;
-                    funcName = selfMethodCallMath.group("function");
-                    rawContent = selfMethodCallMath.group("parameters");
-                }
+        switch (body.getEngine()) {
+            case COMPILED:
+                CompiledMethod compiled = link(body).compile(body, instructions);
 
-                String[] raw = ScriptParser.groupContent(rawContent);
-                Variable[] content = new Variable[raw.length];
-                for (int i = 0; i < raw.length; i++) {
-                    String str = raw[i];
-                    if (str.endsWith("::")) {
-                        str = str.substring(0, str.length() - 2);
-                    }
-                    content[i] = Variable.wrap(str, String.class);
+                interpreter.enter(body, this);
+                try {
+                    return compiled.invoke(body, frame);
+                } finally {
+                    interpreter.leave();
                 }
+            case BYTECODE:
+                return interpreter.run(body, this, getBytecode(), frame);
+            case TIERED:
+                CompiledMethod promoted = promote(body, instructions);
+                if (promoted == null) break;
 
-                Import imp = null;
-                Function func = null;
-                if (impName != null) {
-                    if (!impName.equals("this")) {
-                    imp = body.getImport(impName);
-                    if (imp == null) {
-                        throw new ScriptWorkException(
-                                new NoSuchImportException(impName)
-                        );
-                    }
-
-                    func = imp.getFunction(funcName, content.length);
-                    if (func == null) throw new ScriptWorkException(new NoSuchInvokeException(imp, funcName));
-                    }
-                } else {
-                    func = body.findFunction(funcName, content.length);
-                    if (func == null) {
-                        impName = "this";
-                    } else {
-                        imp = func.getImport();
-                        impName = func.getImport().getName();
-                    }
+                interpreter.enter(body, this);
+                try {
+                    return promoted.invoke(body, frame);
+                } finally {
+                    interpreter.leave();
                 }
+            default:
+                break;
+        }
 
-                mapVariables(content, param, imp, func, line);
-
-                if (imp == null) {
-                    if (impName.equals("this")) {
-                        ScriptMethod method = body.getMethod(funcName, content.length);
-                        if (method == null) throw new ScriptWorkException(
-                                new NoSuchMethodException(funcName, content.length)
-                        );
-
-                        method.invoke(body, content);
-                        continue;
-                    }
-
-                    throw new ScriptWorkException(new NoSuchImportException(impName));
-                }
+        return interpreter.run(body, this, instructions, frame);
+    }
 
-                Object response = func.execute(content);
-                if (response instanceof ExitVoidReturn) {
-                    return response;
-                }
+    /**
+     * Get the link of the method to the linkage
+     * of a body. The last link is kept, so a method
+     * which is called from a single linkage only looks
+     * up its link once
+     *
+     * @param body the body
+     * @return the method link
+     */
+    MethodLink link(final ScriptBody body) {
+        MethodLink link = this.link;
+        ScriptLinkage linkage = body.getLinkage();
+        if (link == null || link.linkage != linkage) {
+            link = linkage.link(this);
+            this.link = link;
+        }
 
-                continue;
-            }
+        return link;
+    }
 
-            if (line.startsWith("exit")) {
-                if (line.contains(" ")) {
-                    String v1 = line.split(" ")[1];
-                    System.out.printf("Exiting program (%s).", v1);
+    /**
+     * Create the frame of an invocation. The method
+     * must have been compiled before creating its frame
+     *
+     * @param body the body
+     * @param parameters the method parameters
+     * @return the method frame
+     */
+    Variable[] frame(final ScriptBody body, final Variable[] parameters) {
+        Variable[] frame = new Variable[layout.size()];
 
-                    return ExitVoidReturn.get();
-                }
+        int rest = layout.getRestSlot();
+        int bound = (rest == -1 ? frame.length : rest);
+        for (int i = 0; i < layout.getParameters() && i < bound; i++) {
+            frame[i] = (i < parameters.length ? parameters[i] : NullReference.get());
+        }
 
-                System.out.print("Exiting program (0).");
-                return ExitVoidReturn.get();
+        if (rest != -1) {
+            Variable[] vars = new Variable[Math.max(0, parameters.length - rest)];
+            if (vars.length > 0) {
+                java.lang.System.arraycopy(parameters, rest, vars, 0, vars.length);
             }
 
-            if (line.startsWith("echo")) {
-                if (!line.contains(" ")) {
-                    System.out.print("");
-                    continue;
-                }
+            frame[rest] = Variable.wrap(vars, Variable[].class);
+        }
 
-                line = ScriptParser.removeFirstSpaces(line.substring(4));
-                if (!line.startsWith("[") && !line.endsWith("]")) {
-                    System.out.println(line);
-                } else {
-                    es.karmadev.api.script.lang.imports.sys.System
-                            sys = es.karmadev.api.script.lang.imports.sys.System.getImport();
-                    Function print = sys.getFunction("println", 0);
-
-                    String[] raw = ScriptParser.groupContent(line.substring(1, line.length() - 1));
-                    Variable[] content = new Variable[raw.length];
-                    for (int i = 0; i < raw.length; i++) {
-                        String str = raw[i];
-                        if (str.endsWith("::")) {
-                            str = str.substring(0, str.length() - 2);
-                        }
-                        content[i] = Variable.wrap(str, String.class);
-                    }
-
-                    mapVariables(content, param, null, null, line);
-                    print.execute(content);
-                }
-            }
+        int self = layout.getThisSlot();
+        if (self != -1) {
+            frame[self] = body.self();
         }
 
-        return VoidReturn.get();
+        return frame;
     }
 
-    private void mapVariables(final Variable[] content, final Map<String, Variable> param,
-                              final Import imp, final Function func, final String line) {
-
-        for (int i = 0; i < content.length; i++) {
-            Variable var = content[i];
-            if (var.isNull()) {
-                content[i] = var;
-                continue;
-            }
-
-            String word = var.getValue(String.class);
-
-            if (word.startsWith("\"") || word.startsWith("'")) {
-                content[i] = Variable.wrap(word.substring(1, word.length() - 1), String.class);
-                continue;
-            }
+    /**
+     * Get the promoted method of the tiered engine. If
+     * the method has not been promoted yet, the invocation
+     * is counted, and the method is promoted if it has reached
+     * the body tiering threshold. The method is compiled on the
+     * policy executor, and the compiled method is published once
+     * it's ready, so the invocations which are running are not
+     * affected. The promotion is kept per linkage, so bodies
+     * which share the method with another linkage promote it
+     * once each
+     *
+     * @param body the body
+     * @param instructions the method instructions
+     * @return the promoted method, or null if the method
+     * should be interpreted
+     */
+    CompiledMethod promote(final ScriptBody body, final Instruction[] instructions) {
+        MethodLink link = link(body);
+        CompiledMethod promoted = link.compiled;
+        if (promoted != null || link.failed) return promoted;
+
+        TieringPolicy policy = body.getTiering();
+        if (link.invocations < policy.getThreshold()) {
+            link.invocations++;
+            return null;
+        }
 
-            if (word.contains(",") || word.contains(".")) {
+        if (!link.promoting.compareAndSet(false, true)) return null;
+        try {
+            policy.getExecutor().execute(() -> {
                 try {
-                    double dValue = Double.parseDouble(word);
-                    content[i] = Variable.wrap(dValue, Number.class);
-
-                    continue;
-                } catch (NumberFormatException ignored) {
+                    link.compile(body, instructions);
+                } catch (RuntimeException | LinkageError ex) {
+                    link.failed = true;
+                    report(policy, ex);
+                } finally {
+                    link.promoting.set(false);
                 }
-            } else {
-                try {
-                    long lValue = Long.parseLong(word);
-                    content[i] = Variable.wrap(lValue, Number.class);
-
-                    continue;
-                } catch (NumberFormatException ignored) {}
-            }
-
-            if (word.equals("true") || word.equals("false")) {
-                content[i] = Variable.wrap(word.equals("true"), Boolean.class);
-                continue;
-            }
+            });
+        } catch (RejectedExecutionException ex) {
+            link.promoting.set(false);
+        }
 
-            Variable variable = param.get(word);
-            if (variable == null) {
-                if (imp == null) {
-                    throw new ScriptWorkException(
-                            new NoSuchDefException(line, word)
-                    );
-                } else {
-                    throw new ScriptWorkException(
-                            new NoSuchDefException(imp, func, line, word)
-                    );
-                }
-            }
+        return null;
+    }
 
-            content[i] = variable;
-        }
+    private void report(final TieringPolicy policy, final Throwable error) {
+        try {
+            policy.getListener().accept(this, error);
+        } catch (RuntimeException ignored) {}
     }
 }
@@ -0,0 +1,110 @@
+package es.karmadev.api.script.body;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents the policy of the {@link ExecutionEngine#TIERED}
+ * engine. Methods start running in the interpreter, and once
+ * a method has been invoked as many times as the policy threshold,
+ * it's compiled into a JVM class on the policy executor. The
+ * compiled method replaces the interpreted one once it's ready.
+ * If a method fails to compile, it keeps being interpreted, and
+ * the failure is reported to the policy listener
+ */
+public final class TieringPolicy {
+
+    /**
+     * The default policy. Methods are promoted after
+     * 1000 invocations, and compiled on a single shared
+     * background thread
+     */
+    public final static TieringPolicy DEFAULT = new TieringPolicy(1000, defaultExecutor());
+
+    private final static Logger logger = Logger.getLogger(TieringPolicy.class.getName());
+
+    private final int threshold;
+    private final Executor executor;
+    private final BiConsumer<ScriptMethod, Throwable> listener;
+
+    /**
+     * Initialize the tiering policy. The methods
+     * which fail to compile are logged
+     *
+     * @param threshold the amount of invocations after
+     *                  which a method is compiled
+     * @param executor the executor to compile methods on
+     */
+    public TieringPolicy(final int threshold, final Executor executor) {
+        this(threshold, executor, TieringPolicy::log);
+    }
+
+    /**
+     * Initialize the tiering policy
+     *
+     * @param threshold the amount of invocations after
+     *                  which a method is compiled
+     * @param executor the executor to compile methods on
+     * @param listener the listener of the methods which
+     *                 fail to compile. It's called from the
+     *                 executor thread
+     */
+    public TieringPolicy(final int threshold, final Executor executor, final BiConsumer<ScriptMethod, Throwable> listener) {
+        if (listener == null) throw new IllegalArgumentException("Cannot create a tiering policy with a null listener");
+
+        this.threshold = Math.max(0, threshold);
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Get the amount of invocations after
+     * which a method is compiled
+     *
+     * @return the promotion threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Get the executor methods
+     * are compiled on
+     *
+     * @return the compiler executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the listener of the
+     * methods which fail to compile
+     *
+     * @return the failure listener
+     */
+    public BiConsumer<ScriptMethod, Throwable> getListener() {
+        return listener;
+    }
+
+    private static void log(final ScriptMethod method, final Throwable error) {
+        logger.log(Level.WARNING, "Failed to compile method " + method.getName() + ". It will keep being interpreted", error);
+    }
+
+    private static Executor defaultExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (task) -> {
+            Thread thread = new Thread(task, "script-compiler");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+}
@@ -3,16 +3,20 @@ package es.karmadev.api.script.body;
 import es.karmadev.api.script.exception.VariableDefinitionException;
 import es.karmadev.api.script.exception.body.ScriptWorkException;
 import es.karmadev.api.script.lang.NullReference;
+import es.karmadev.api.script.lang.variables.BooleanVariable;
+import es.karmadev.api.script.lang.variables.DoubleVariable;
+import es.karmadev.api.script.lang.variables.LongVariable;
+import es.karmadev.api.script.lang.variables.ObjectVariable;
+import es.karmadev.api.script.lang.variables.StringVariable;
 
 import java.lang.reflect.Type;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents a variable
  */
 public abstract class Variable {
 
-    private final String name;
+    private String name;
     private final boolean nullable;
     private final int flags;
     private final Class<?> type;
@@ -46,6 +50,33 @@ public abstract class Variable {
         }
     }
 
+    /**
+     * Initialize an anonymous non-null variable. The
+     * variable name is only generated if it is requested
+     *
+     * @param flags the variable flags
+     * @param type the variable type
+     */
+    protected <T> Variable(final int flags, final Class<T> type) {
+        this.name = null;
+        this.nullable = false;
+        this.flags = flags;
+        this.type = type;
+    }
+
+    /**
+     * Get the variable name
+     *
+     * @return the variable name
+     */
+    public String getName() {
+        if (name == null) {
+            name = "anon@" + Integer.toHexString(java.lang.System.identityHashCode(this));
+        }
+
+        return name;
+    }
+
     /**
      * Get if the variable is null
      *
@@ -83,6 +114,51 @@ public abstract class Variable {
         return type;
     }
 
+    /**
+     * Get the variable value as a long
+     *
+     * @return the long value
+     * @throws ScriptWorkException if the variable is
+     * not a number
+     */
+    public long getLong() throws ScriptWorkException {
+        if (value instanceof Number) return ((Number) value).longValue();
+        throw new ScriptWorkException("Cannot read " + getName() + " as number because it's not a number");
+    }
+
+    /**
+     * Get the variable value as a double
+     *
+     * @return the double value
+     * @throws ScriptWorkException if the variable is
+     * not a number
+     */
+    public double getDouble() throws ScriptWorkException {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        throw new ScriptWorkException("Cannot read " + getName() + " as number because it's not a number");
+    }
+
+    /**
+     * Get the variable value as a boolean
+     *
+     * @return the boolean value
+     * @throws ScriptWorkException if the variable is
+     * not a boolean
+     */
+    public boolean getBoolean() throws ScriptWorkException {
+        if (value instanceof Boolean) return (Boolean) value;
+        throw new ScriptWorkException("Cannot read " + getName() + " as boolean because it's not a boolean");
+    }
+
+    /**
+     * Get the variable value as a string
+     *
+     * @return the string value
+     */
+    public String getString() {
+        return String.valueOf(value);
+    }
+
     /**
      * Set a variable value
      *
@@ -94,19 +170,19 @@ public abstract class Variable {
 
             if (!this.type.isAssignableFrom(type) && !type.isAssignableFrom(this.type) &&
                     !this.type.equals(type)) {
-                throw new ScriptWorkException("Cannot assign " + value + " to " + name + " because they are not the same type");
+                throw new ScriptWorkException("Cannot assign " + value + " to " + getName() + " because they are not the same type");
             }
         }
 
         if (value == null && !nullable) {
-            throw new ScriptWorkException("Cannot assign null to " + name + " because it's not-nul");
+            throw new ScriptWorkException("Cannot assign null to " + getName() + " because it's not-nul");
         }
         if ((flags & FLAG_READONLY) == FLAG_READONLY) {
-            throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + name);
+            throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
         }
 
         if ((flags & FLAG_FINAL) == FLAG_FINAL && this.value != null) {
-            throw new ScriptWorkException("Cannot assign " + value + " to already-defined final variable " + name);
+            throw new ScriptWorkException("Cannot assign " + value + " to already-defined final variable " + getName());
         }
 
         this.value = value;
@@ -126,7 +202,9 @@ public abstract class Variable {
     }
 
     /**
-     * Wrap an object into a variable
+     * Wrap an object into a variable. Strings,
+     * booleans and numbers wrapped as {@link Number}
+     * are wrapped into their specialized variable
      *
      * @param value the object
      * @return the variable
@@ -134,25 +212,59 @@ public abstract class Variable {
     public static <T> Variable wrap(final T value, final Class<T> type) {
         if (value == null) return NullReference.get();
 
-        int random = ThreadLocalRandom.current().nextInt();
-        try {
-            Variable v = new Variable("anon@" + random, false, FLAG_PRIVATE & FLAG_READONLY & FLAG_FINAL, type) {
-
-                /**
-                 * Get if the variable is null
-                 *
-                 * @return if the variable is null
-                 */
-                @Override
-                public boolean isNull() {
-                    return value == null;
-                }
-            };
-
-            v.value = value;
-            return v;
-        } catch (VariableDefinitionException ex) {
-            return NullReference.get();
+        if (type == String.class) return of((String) value);
+        if (type == Boolean.class) return of((Boolean) value);
+        if (type == Number.class) {
+            if (value instanceof Double || value instanceof Float) {
+                return of(((Number) value).doubleValue());
+            }
+            if (value instanceof Long || value instanceof Integer ||
+                    value instanceof Short || value instanceof Byte) {
+                return of(((Number) value).longValue());
+            }
         }
+
+        return new ObjectVariable(value, type);
+    }
+
+    /**
+     * Wrap a long into a variable
+     *
+     * @param value the long
+     * @return the variable
+     */
+    public static Variable of(final long value) {
+        return LongVariable.valueOf(value);
+    }
+
+    /**
+     * Wrap a double into a variable
+     *
+     * @param value the double
+     * @return the variable
+     */
+    public static Variable of(final double value) {
+        return new DoubleVariable(value);
+    }
+
+    /**
+     * Wrap a boolean into a variable
+     *
+     * @param value the boolean
+     * @return the variable
+     */
+    public static Variable of(final boolean value) {
+        return BooleanVariable.valueOf(value);
+    }
+
+    /**
+     * Wrap a string into a variable
+     *
+     * @param value the string
+     * @return the variable
+     */
+    public static Variable of(final String value) {
+        if (value == null) return NullReference.get();
+        return new StringVariable(value);
     }
 }
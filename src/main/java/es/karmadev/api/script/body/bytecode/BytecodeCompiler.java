@@ -0,0 +1,160 @@
+package es.karmadev.api.script.body.bytecode;
+
+import es.karmadev.api.script.body.instruction.Argument;
+import es.karmadev.api.script.body.instruction.EchoInstruction;
+import es.karmadev.api.script.body.instruction.ExitInstruction;
+import es.karmadev.api.script.body.instruction.HostCallInstruction;
+import es.karmadev.api.script.body.instruction.ImportCallInstruction;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.SelfCallInstruction;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.bind.MemberSite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytecode compiler. The bytecode compiler encodes
+ * the instructions of a script method into KScript
+ * bytecode, as described by {@link Opcodes}
+ */
+public final class BytecodeCompiler {
+
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> indexes = new HashMap<>();
+
+    private int[] code = new int[32];
+    private int size;
+    private int sites;
+
+    private BytecodeCompiler() {}
+
+    /**
+     * Compile a method
+     *
+     * @param instructions the method instructions
+     * @param registers the size of the method frame
+     * @return the bytecode method
+     * @throws ScriptWorkException if an instruction
+     * has no bytecode representation
+     */
+    public static BytecodeMethod compile(final Instruction[] instructions, final int registers) throws ScriptWorkException {
+        BytecodeCompiler compiler = new BytecodeCompiler();
+        for (Instruction instruction : instructions) {
+            compiler.instruction(instruction);
+        }
+
+        return new BytecodeMethod(Arrays.copyOf(compiler.code, compiler.size), compiler.constants.toArray(),
+                registers, compiler.sites);
+    }
+
+    private void instruction(final Instruction instruction) {
+        if (instruction instanceof EchoInstruction) {
+            EchoInstruction echo = (EchoInstruction) instruction;
+            if (echo.getText() != null) {
+                emit(Opcodes.ECHO_TEXT, constant(echo.getText()));
+                return;
+            }
+
+            Argument[] arguments = echo.getArguments();
+            if (echo.getTemplate() != null) {
+                Argument[] values = Arrays.copyOfRange(arguments, 1, arguments.length);
+
+                emit(Opcodes.ECHO_FORMAT, constant(echo.getTemplate()), line(instruction, values));
+                arguments(values);
+                return;
+            }
+
+            emit(Opcodes.ECHO, line(instruction, arguments));
+            arguments(arguments);
+            return;
+        }
+
+        if (instruction instanceof ExitInstruction) {
+            emit(Opcodes.EXIT, constant(((ExitInstruction) instruction).getMessage()));
+            return;
+        }
+
+        if (instruction instanceof ImportCallInstruction) {
+            ImportCallInstruction call = (ImportCallInstruction) instruction;
+            Argument[] arguments = call.getArguments();
+
+            emit(Opcodes.CALL_IMPORT, sites++, constant(call.getImportName()), constant(call.getFunction()),
+                    line(instruction, arguments));
+            arguments(arguments);
+            return;
+        }
+
+        if (instruction instanceof SelfCallInstruction) {
+            SelfCallInstruction call = (SelfCallInstruction) instruction;
+            Argument[] arguments = call.getArguments();
+
+            emit(Opcodes.CALL_SELF, sites++, constant(call.getMethod()), call.isQualified() ? 1 : 0,
+                    line(instruction, arguments));
+            arguments(arguments);
+            return;
+        }
+
+        if (instruction instanceof HostCallInstruction) {
+            HostCallInstruction call = (HostCallInstruction) instruction;
+            Argument[] arguments = call.getArguments();
+
+            emit(Opcodes.CALL_HOST, call.getSlot(), constant(MemberSite.method(call.getMethod(), arguments.length)),
+                    line(instruction, arguments));
+            arguments(arguments);
+            return;
+        }
+
+        throw new ScriptWorkException("Cannot compile " + instruction.getType() + " instruction to bytecode");
+    }
+
+    private int line(final Instruction instruction, final Argument[] arguments) {
+        for (Argument argument : arguments) {
+            if (argument.getSlot() == -1 && argument.getConstant() == null) {
+                return constant(instruction.getLine());
+            }
+        }
+
+        return -1;
+    }
+
+    private void arguments(final Argument[] arguments) {
+        emit(arguments.length);
+        for (Argument argument : arguments) {
+            if (argument.getSlot() != -1 && !argument.isProperty()) {
+                emit(argument.getSlot());
+                continue;
+            }
+
+            Object constant = argument.getConstant();
+            if (constant == null) {
+                constant = (argument.isProperty() ? argument : argument.getRaw());
+            }
+            emit(-(constant(constant) + 1));
+        }
+    }
+
+    private int constant(final Object value) {
+        Integer index = indexes.get(value);
+        if (index != null) return index;
+
+        index = constants.size();
+        constants.add(value);
+        indexes.put(value, index);
+
+        return index;
+    }
+
+    private void emit(final int... values) {
+        if (size + values.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + values.length));
+        }
+
+        for (int value : values) {
+            code[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package es.karmadev.api.script.body.bytecode;
+
+/**
+ * Represents a script method compiled into
+ * KScript bytecode. The bytecode is a code array and
+ * a constant pool, and doesn't depend on the body it's
+ * run on, so the same bytecode can be run on many bodies,
+ * and stored.
+ * <p>
+ * The method registers are the method frame slots, so
+ * the arguments of a call are read directly from them
+ */
+public final class BytecodeMethod {
+
+    private final int[] code;
+    private final Object[] constants;
+    private final int registers;
+    private final Object[] links;
+
+    /**
+     * Initialize the bytecode method
+     *
+     * @param code the method code
+     * @param constants the method constants
+     * @param registers the amount of registers
+     * @param sites the amount of call sites
+     */
+    public BytecodeMethod(final int[] code, final Object[] constants, final int registers, final int sites) {
+        this.code = code.clone();
+        this.constants = constants.clone();
+        this.registers = registers;
+        this.links = new Object[sites];
+    }
+
+    /**
+     * Get the method code
+     *
+     * @return the method code
+     */
+    public int[] getCode() {
+        return code.clone();
+    }
+
+    /**
+     * Get the method constants
+     *
+     * @return the method constants
+     */
+    public Object[] getConstants() {
+        return constants.clone();
+    }
+
+    /**
+     * Get the amount of registers
+     * the method uses
+     *
+     * @return the amount of registers
+     */
+    public int getRegisters() {
+        return registers;
+    }
+
+    /**
+     * Get the amount of call
+     * sites of the method
+     *
+     * @return the amount of call sites
+     */
+    public int getSites() {
+        return links.length;
+    }
+
+    /**
+     * Get the method code, without
+     * copying it
+     *
+     * @return the method code
+     */
+    int[] code() {
+        return code;
+    }
+
+    /**
+     * Get the method constants, without
+     * copying them
+     *
+     * @return the method constants
+     */
+    Object[] constants() {
+        return constants;
+    }
+
+    /**
+     * Get the resolved call site targets. The
+     * targets are immutable, so they can be read
+     * and replaced from any thread
+     *
+     * @return the call site targets
+     */
+    Object[] links() {
+        return links;
+    }
+}
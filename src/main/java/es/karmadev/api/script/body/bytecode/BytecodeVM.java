@@ -0,0 +1,372 @@
+package es.karmadev.api.script.body.bytecode;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptLinkage;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.body.instruction.Argument;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exception.body.NoSuchDefException;
+import es.karmadev.api.script.exception.body.NoSuchImportException;
+import es.karmadev.api.script.exception.body.NoSuchInvokeException;
+import es.karmadev.api.script.exception.body.NoSuchMethodException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.exec.ExecutionContext;
+import es.karmadev.api.script.exec.OutputSink;
+import es.karmadev.api.script.lang.bind.MemberSite;
+import es.karmadev.api.script.lang.imports.sys.PrintLn;
+import es.karmadev.api.script.lang.imports.sys.PrintTemplate;
+import es.karmadev.api.script.lang.imports.sys.System;
+import es.karmadev.api.script.lang.variables.ExitVoidReturn;
+import es.karmadev.api.script.lang.variables.VoidReturn;
+
+/**
+ * Bytecode virtual machine. The virtual machine
+ * runs a {@link BytecodeMethod} in a single loop over
+ * its code, using the method frame as its registers. Call
+ * targets are resolved the first time each call site runs
+ * on a body, and cached in the bytecode method.
+ * <p>
+ * Calls to other script methods are not run by the virtual
+ * machine. The method stops and returns a {@link Call}, so the
+ * caller can run the callee on its own frame stack and resume
+ * the method afterwards
+ */
+public final class BytecodeVM {
+
+    private BytecodeVM() {}
+
+    /**
+     * Run a bytecode method until it returns or
+     * calls another script method
+     *
+     * @param body the body
+     * @param method the bytecode method
+     * @param registers the method frame
+     * @param from the instruction to run from
+     * @return the method return, or the {@link Call} the
+     * method has stopped at
+     * @throws ScriptRuntimeException if there's an error
+     * during the script execution
+     */
+    public static Object run(final ScriptBody body, final BytecodeMethod method, final Variable[] registers,
+                             final int from) throws ScriptRuntimeException {
+        int[] code = method.code();
+        Object[] constants = method.constants();
+        ExecutionContext context = ExecutionContext.current();
+
+        int pc = from;
+        while (pc < code.length) {
+            if (context != null) context.checkpoint();
+
+            switch (code[pc]) {
+                case Opcodes.ECHO_TEXT:
+                    OutputSink.current().writeLine((String) constants[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case Opcodes.ECHO: {
+                    int argc = code[pc + 2];
+
+                    Function print = System.getImport().getFunction("println", 0);
+                    call(print, code, pc + 3, argc, registers, constants, code[pc + 1], null);
+
+                    pc += 3 + argc;
+                    break;
+                }
+                case Opcodes.ECHO_FORMAT: {
+                    int argc = code[pc + 3];
+
+                    PrintTemplate template = (PrintTemplate) constants[code[pc + 1]];
+                    println(template, code, pc + 4, argc, registers, constants, code[pc + 2]);
+
+                    pc += 4 + argc;
+                    break;
+                }
+                case Opcodes.EXIT:
+                    OutputSink output = OutputSink.current();
+                    output.write((String) constants[code[pc + 1]]);
+                    output.flush();
+
+                    return ExitVoidReturn.get();
+                case Opcodes.CALL_IMPORT: {
+                    int argc = code[pc + 5];
+                    Function func = (Function) link(body, method, code, pc, constants).target;
+
+                    Object response = call(func, code, pc + 6, argc, registers, constants, code[pc + 4], func.getImport());
+                    if (response instanceof ExitVoidReturn) {
+                        return response;
+                    }
+
+                    pc += 6 + argc;
+                    break;
+                }
+                case Opcodes.CALL_SELF: {
+                    int argc = code[pc + 5];
+                    Object target = link(body, method, code, pc, constants).target;
+
+                    if (target instanceof Function) {
+                        Function func = (Function) target;
+
+                        Object response = call(func, code, pc + 6, argc, registers, constants, code[pc + 4], func.getImport());
+                        if (response instanceof ExitVoidReturn) {
+                            return response;
+                        }
+                    } else {
+                        Variable[] values = arguments(code, pc + 6, argc, registers, constants, code[pc + 4], null, null);
+                        if (target == null) throw new ScriptWorkException(
+                                new NoSuchMethodException((String) constants[code[pc + 2]], values.length)
+                        );
+
+                        int next = pc + 6 + argc;
+                        return new Call((ScriptMethod) target, values, next, next == code.length);
+                    }
+
+                    pc += 6 + argc;
+                    break;
+                }
+                case Opcodes.CALL_HOST: {
+                    int argc = code[pc + 4];
+                    MemberSite site = (MemberSite) constants[code[pc + 2]];
+
+                    site.invoke(registers[code[pc + 1]], arguments(code, pc + 5, argc, registers, constants, code[pc + 3], null, null));
+
+                    pc += 5 + argc;
+                    break;
+                }
+                default:
+                    throw new ScriptWorkException("Invalid opcode " + code[pc] + " at " + pc);
+            }
+        }
+
+        return VoidReturn.get();
+    }
+
+    private static Object call(final Function func, final int[] code, final int offset, final int argc,
+                               final Variable[] registers, final Object[] constants, final int line, final Import imp) {
+        switch (argc) {
+            case 0:
+                return func.execute0();
+            case 1:
+                return func.execute1(operand(code[offset], registers, constants, line, imp, func));
+            case 2:
+                return func.execute2(operand(code[offset], registers, constants, line, imp, func),
+                        operand(code[offset + 1], registers, constants, line, imp, func));
+            case 3:
+                return func.execute3(operand(code[offset], registers, constants, line, imp, func),
+                        operand(code[offset + 1], registers, constants, line, imp, func),
+                        operand(code[offset + 2], registers, constants, line, imp, func));
+            default:
+                return func.execute(arguments(code, offset, argc, registers, constants, line, imp, func));
+        }
+    }
+
+    private static void println(final PrintTemplate template, final int[] code, final int offset, final int argc,
+                                final Variable[] registers, final Object[] constants, final int line) {
+        switch (argc) {
+            case 0:
+                PrintLn.println(template);
+                return;
+            case 1:
+                PrintLn.println(template, operand(code[offset], registers, constants, line, null, null));
+                return;
+            case 2:
+                PrintLn.println(template, operand(code[offset], registers, constants, line, null, null),
+                        operand(code[offset + 1], registers, constants, line, null, null));
+                return;
+            case 3:
+                PrintLn.println(template, operand(code[offset], registers, constants, line, null, null),
+                        operand(code[offset + 1], registers, constants, line, null, null),
+                        operand(code[offset + 2], registers, constants, line, null, null));
+                return;
+            default:
+                PrintLn.println(template, arguments(code, offset, argc, registers, constants, line, null, null), 0);
+        }
+    }
+
+    private static Variable[] arguments(final int[] code, final int offset, final int argc, final Variable[] registers,
+                                        final Object[] constants, final int line, final Import imp, final Function func) {
+        Variable[] values = new Variable[argc];
+        for (int i = 0; i < argc; i++) {
+            values[i] = operand(code[offset + i], registers, constants, line, imp, func);
+        }
+
+        return values;
+    }
+
+    private static Variable operand(final int operand, final Variable[] registers, final Object[] constants,
+                                    final int line, final Import imp, final Function func) {
+        if (operand >= 0) return registers[operand];
+
+        Object constant = constants[-operand - 1];
+        if (constant instanceof Argument) {
+            Variable value = ((Argument) constant).resolve(registers);
+            if (value != null) return value;
+
+            constant = ((Argument) constant).getRaw();
+        }
+
+        if (!(constant instanceof Variable)) {
+            String raw = (String) constant;
+            if (imp == null) {
+                throw new ScriptWorkException(
+                        new NoSuchDefException((String) constants[line], raw)
+                );
+            }
+
+            throw new ScriptWorkException(
+                    new NoSuchDefException(imp, func, (String) constants[line], raw)
+            );
+        }
+
+        return (Variable) constant;
+    }
+
+    private static Link link(final ScriptBody body, final BytecodeMethod method, final int[] code, final int pc,
+                             final Object[] constants) {
+        Object[] links = method.links();
+        int site = code[pc + 1];
+
+        Link head = (Link) links[site];
+        ScriptLinkage linkage = body.getLinkage();
+        for (Link link = head; link != null; link = link.next) {
+            if (link.linkage == linkage) return link;
+        }
+
+        Object target;
+        if (code[pc] == Opcodes.CALL_IMPORT) {
+            String importName = (String) constants[code[pc + 2]];
+            String function = (String) constants[code[pc + 3]];
+
+            Import imp = body.getImport(importName);
+            if (imp == null) {
+                throw new ScriptWorkException(
+                        new NoSuchImportException(importName)
+                );
+            }
+
+            target = imp.getFunction(function, code[pc + 5]);
+            if (target == null) throw new ScriptWorkException(new NoSuchInvokeException(imp, function));
+        } else {
+            String name = (String) constants[code[pc + 2]];
+            int argc = code[pc + 5];
+
+            target = null;
+            if (code[pc + 3] == 0) {
+                target = body.findFunction(name, argc);
+            }
+            if (target == null) {
+                target = body.getMethod(name, new Object[argc]);
+            }
+        }
+
+        Link link = new Link(linkage, target, Link.copy(head, Link.MAX_ENTRIES - 1));
+        links[site] = link;
+
+        return link;
+    }
+
+    /**
+     * Represents a call from a bytecode method
+     * to another script method
+     */
+    public final static class Call {
+
+        private final ScriptMethod method;
+        private final Variable[] arguments;
+        private final int resume;
+        private final boolean tail;
+
+        /**
+         * Initialize the call
+         *
+         * @param method the called method
+         * @param arguments the call arguments
+         * @param resume the instruction to resume
+         *               the caller from
+         * @param tail if the call is the last
+         *             instruction of the caller
+         */
+        Call(final ScriptMethod method, final Variable[] arguments, final int resume, final boolean tail) {
+            this.method = method;
+            this.arguments = arguments;
+            this.resume = resume;
+            this.tail = tail;
+        }
+
+        /**
+         * Get the called method
+         *
+         * @return the called method
+         */
+        public ScriptMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * Get the call arguments
+         *
+         * @return the call arguments
+         */
+        public Variable[] getArguments() {
+            return arguments;
+        }
+
+        /**
+         * Get the instruction to resume
+         * the caller from
+         *
+         * @return the caller resume instruction
+         */
+        public int getResume() {
+            return resume;
+        }
+
+        /**
+         * Get if the call is the last
+         * instruction of the caller, so
+         * the caller needs no resuming
+         *
+         * @return if the call is a tail call
+         */
+        public boolean isTail() {
+            return tail;
+        }
+    }
+
+    /**
+     * Represents the resolved target of a call
+     * site. A link is immutable, so it can be safely
+     * published to every thread which runs the method.
+     * A site keeps the links of the last linkages it
+     * has run on, newest first
+     */
+    private final static class Link {
+
+        private final static int MAX_ENTRIES = 4;
+
+        private final ScriptLinkage linkage;
+        private final Object target;
+        private final Link next;
+
+        /**
+         * Initialize the link
+         *
+         * @param linkage the linkage the target
+         *                has been resolved for
+         * @param target the resolved target
+         * @param next the links of the previous linkages
+         */
+        Link(final ScriptLinkage linkage, final Object target, final Link next) {
+            this.linkage = linkage;
+            this.target = target;
+            this.next = next;
+        }
+
+        private static Link copy(final Link link, final int entries) {
+            if (link == null || entries == 0) return null;
+            return new Link(link.linkage, link.target, copy(link.next, entries - 1));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package es.karmadev.api.script.body.bytecode;
+
+/**
+ * KScript bytecode opcodes. Each instruction is an
+ * opcode followed by its operands, all of them stored
+ * in the same int array.
+ * <p>
+ * Call arguments are encoded as operands: an operand which
+ * is zero or positive is a register index, and a negative
+ * operand {@code -(k + 1)} refers to the constant {@code k}. A
+ * constant referenced as an argument can also be an
+ * {@link es.karmadev.api.script.body.instruction.Argument} which
+ * reads a property of a register, or the raw name of an undefined
+ * variable, which makes the call fail when it's executed. The line operand of an instruction
+ * is the constant holding the source line, used in error
+ * messages, or -1 if the instruction cannot fail
+ */
+public final class Opcodes {
+
+    /**
+     * {@code ECHO_TEXT text} prints a literal line
+     */
+    public final static int ECHO_TEXT = 1;
+
+    /**
+     * {@code ECHO line argc args...} prints its
+     * arguments through system#println
+     */
+    public final static int ECHO = 2;
+
+    /**
+     * {@code EXIT message} prints the exit
+     * message, and stops the script
+     */
+    public final static int EXIT = 3;
+
+    /**
+     * {@code CALL_IMPORT site import function line argc args...}
+     * calls a function of an import
+     */
+    public final static int CALL_IMPORT = 4;
+
+    /**
+     * {@code CALL_SELF site name qualified line argc args...}
+     * calls a function or a script method. If qualified is 1,
+     * only script methods are looked up
+     */
+    public final static int CALL_SELF = 5;
+
+    /**
+     * {@code CALL_HOST receiver member line argc args...}
+     * calls a method of the host object held by the receiver
+     * register. The member is the constant holding the call
+     * {@link es.karmadev.api.script.lang.bind.MemberSite site}
+     */
+    public final static int CALL_HOST = 6;
+
+    /**
+     * {@code ECHO_FORMAT template line argc args...} prints
+     * its arguments with a compiled format. The template is the
+     * constant holding the {@link es.karmadev.api.script.lang.imports.sys.PrintTemplate}
+     */
+    public final static int ECHO_FORMAT = 7;
+
+    private Opcodes() {}
+
+    /**
+     * Get the length of an instruction
+     *
+     * @param code the code
+     * @param pc the instruction offset
+     * @return the instruction length, including
+     * the opcode
+     */
+    public static int length(final int[] code, final int pc) {
+        switch (code[pc]) {
+            case ECHO_TEXT:
+            case EXIT:
+                return 2;
+            case ECHO:
+                return 3 + code[pc + 2];
+            case CALL_IMPORT:
+            case CALL_SELF:
+                return 6 + code[pc + 5];
+            case CALL_HOST:
+                return 5 + code[pc + 4];
+            case ECHO_FORMAT:
+                return 4 + code[pc + 3];
+            default:
+                throw new IllegalArgumentException("Invalid opcode " + code[pc] + " at " + pc);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package es.karmadev.api.script.body.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JVM class file writer. The writer only
+ * supports what the script compiler needs: a constant
+ * pool, fields and methods with a code attribute. Classes
+ * are written with version 49, so the methods don't need
+ * stack map frames
+ */
+final class ClassWriter {
+
+    final static int ACC_PUBLIC = 0x0001;
+    final static int ACC_PRIVATE = 0x0002;
+    final static int ACC_FINAL = 0x0010;
+    final static int ACC_SUPER = 0x0020;
+
+    private final static int VERSION = 49;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int poolSize = 1;
+
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /**
+     * Get a UTF-8 constant
+     *
+     * @param value the constant value
+     * @return the constant index
+     */
+    int utf8(final String value) {
+        Integer index = entries.get("U" + value);
+        if (index != null) return index;
+
+        try {
+            poolOut.writeByte(1);
+            poolOut.writeUTF(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return register("U" + value);
+    }
+
+    /**
+     * Get a class constant
+     *
+     * @param internalName the class internal name
+     * @return the constant index
+     */
+    int classRef(final String internalName) {
+        Integer index = entries.get("C" + internalName);
+        if (index != null) return index;
+
+        int name = utf8(internalName);
+        write(7, name);
+
+        return register("C" + internalName);
+    }
+
+    /**
+     * Get an integer constant
+     *
+     * @param value the constant value
+     * @return the constant index
+     */
+    int integer(final int value) {
+        Integer index = entries.get("I" + value);
+        if (index != null) return index;
+
+        try {
+            poolOut.writeByte(3);
+            poolOut.writeInt(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return register("I" + value);
+    }
+
+    /**
+     * Get a field reference constant
+     *
+     * @param owner the field owner internal name
+     * @param name the field name
+     * @param descriptor the field descriptor
+     * @return the constant index
+     */
+    int fieldRef(final String owner, final String name, final String descriptor) {
+        return member(9, owner, name, descriptor);
+    }
+
+    /**
+     * Get a method reference constant
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @return the constant index
+     */
+    int methodRef(final String owner, final String name, final String descriptor) {
+        return member(10, owner, name, descriptor);
+    }
+
+    /**
+     * Get an interface method reference constant
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @return the constant index
+     */
+    int interfaceMethodRef(final String owner, final String name, final String descriptor) {
+        return member(11, owner, name, descriptor);
+    }
+
+    /**
+     * Add a field
+     *
+     * @param access the field access flags
+     * @param name the field name
+     * @param descriptor the field descriptor
+     */
+    void field(final int access, final String name, final String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * Add a method
+     *
+     * @param access the method access flags
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @param code the method code
+     */
+    void method(final int access, final String name, final String descriptor, final CodeBuilder code) {
+        byte[] instructions = code.toByteArray();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);
+
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + instructions.length);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(instructions.length);
+            out.write(instructions);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        methods.add(bytes.toByteArray());
+    }
+
+    /**
+     * Write the class file
+     *
+     * @param access the class access flags
+     * @param name the class internal name
+     * @param superName the super class internal name
+     * @return the class file bytes
+     */
+    byte[] toByteArray(final int access, final String name, final String superName) {
+        int self = classRef(name);
+        int parent = classRef(superName);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolSize);
+            poolOut.flush();
+            pool.writeTo(out);
+
+            out.writeShort(access);
+            out.writeShort(self);
+            out.writeShort(parent);
+            out.writeShort(0);
+
+            out.writeShort(fields.size());
+            for (byte[] field : fields) out.write(field);
+            out.writeShort(methods.size());
+            for (byte[] method : methods) out.write(method);
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private int member(final int tag, final String owner, final String name, final String descriptor) {
+        String key = tag + owner + "." + name + descriptor;
+        Integer index = entries.get(key);
+        if (index != null) return index;
+
+        int ownerIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        write(tag, ownerIndex, nameAndType);
+
+        return register(key);
+    }
+
+    private int nameAndType(final String name, final String descriptor) {
+        String key = "N" + name + descriptor;
+        Integer index = entries.get(key);
+        if (index != null) return index;
+
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        write(12, nameIndex, descriptorIndex);
+
+        return register(key);
+    }
+
+    private void write(final int tag, final int... indexes) {
+        try {
+            poolOut.writeByte(tag);
+            for (int index : indexes) {
+                poolOut.writeShort(index);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private int register(final String key) {
+        int index = poolSize++;
+        entries.put(key, index);
+
+        return index;
+    }
+}
@@ -0,0 +1,358 @@
+package es.karmadev.api.script.body.compiler;
+
+import java.util.Arrays;
+
+/**
+ * Builds the code of a method. The builder keeps
+ * track of the operand stack depth, so the maximum
+ * stack size doesn't need to be computed afterwards
+ */
+final class CodeBuilder {
+
+    private final ClassWriter writer;
+    private final int maxLocals;
+
+    private byte[] code = new byte[64];
+    private int size;
+    private int stack;
+    private int maxStack;
+
+    /**
+     * Initialize the code builder
+     *
+     * @param writer the class writer
+     * @param maxLocals the amount of local variables,
+     *                  including this and the parameters
+     */
+    CodeBuilder(final ClassWriter writer, final int maxLocals) {
+        this.writer = writer;
+        this.maxLocals = maxLocals;
+    }
+
+    /**
+     * Get the code size
+     *
+     * @return the code size in bytes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the maximum stack depth
+     *
+     * @return the maximum stack depth
+     */
+    int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Get the amount of local variables
+     *
+     * @return the amount of local variables
+     */
+    int getMaxLocals() {
+        return maxLocals;
+    }
+
+    /**
+     * Get the code
+     *
+     * @return the code bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(code, size);
+    }
+
+    /**
+     * Load a reference local variable
+     *
+     * @param local the local variable index
+     */
+    void aload(final int local) {
+        if (local <= 3) {
+            op(0x2A + local, 1);
+        } else {
+            op(0x19, 1);
+            u1(local);
+        }
+    }
+
+    /**
+     * Store a reference into a local
+     * variable
+     *
+     * @param local the local variable index
+     */
+    void astore(final int local) {
+        if (local <= 3) {
+            op(0x4B + local, -1);
+        } else {
+            op(0x3A, -1);
+            u1(local);
+        }
+    }
+
+    /**
+     * Push an int constant
+     *
+     * @param value the constant
+     */
+    void push(final int value) {
+        if (value >= -1 && value <= 5) {
+            op(0x03 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            op(0x10, 1);
+            u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            op(0x11, 1);
+            u2(value);
+        } else {
+            op(0x13, 1);
+            u2(writer.integer(value));
+        }
+    }
+
+    /**
+     * Load a reference from an array
+     */
+    void aaload() {
+        op(0x32, -1);
+    }
+
+    /**
+     * Store a reference into an array
+     */
+    void aastore() {
+        op(0x53, -3);
+    }
+
+    /**
+     * Duplicate the value on top
+     * of the stack
+     */
+    void dup() {
+        op(0x59, 1);
+    }
+
+    /**
+     * Discard the value on top
+     * of the stack
+     */
+    void pop() {
+        op(0x57, -1);
+    }
+
+    /**
+     * Return the reference on top
+     * of the stack
+     */
+    void areturn() {
+        op(0xB0, -1);
+    }
+
+    /**
+     * Return from a void method
+     */
+    void vreturn() {
+        op(0xB1, 0);
+    }
+
+    /**
+     * Read an instance field
+     *
+     * @param owner the field owner internal name
+     * @param name the field name
+     * @param descriptor the field descriptor
+     */
+    void getField(final String owner, final String name, final String descriptor) {
+        op(0xB4, 0);
+        u2(writer.fieldRef(owner, name, descriptor));
+    }
+
+    /**
+     * Write an instance field
+     *
+     * @param owner the field owner internal name
+     * @param name the field name
+     * @param descriptor the field descriptor
+     */
+    void putField(final String owner, final String name, final String descriptor) {
+        op(0xB5, -2);
+        u2(writer.fieldRef(owner, name, descriptor));
+    }
+
+    /**
+     * Invoke an instance method
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     */
+    void invokeVirtual(final String owner, final String name, final String descriptor) {
+        op(0xB6, result(descriptor) - arguments(descriptor) - 1);
+        u2(writer.methodRef(owner, name, descriptor));
+    }
+
+    /**
+     * Invoke a constructor or a super
+     * class method
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     */
+    void invokeSpecial(final String owner, final String name, final String descriptor) {
+        op(0xB7, result(descriptor) - arguments(descriptor) - 1);
+        u2(writer.methodRef(owner, name, descriptor));
+    }
+
+    /**
+     * Invoke a static method
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     */
+    void invokeStatic(final String owner, final String name, final String descriptor) {
+        op(0xB8, result(descriptor) - arguments(descriptor));
+        u2(writer.methodRef(owner, name, descriptor));
+    }
+
+    /**
+     * Invoke an interface method
+     *
+     * @param owner the method owner internal name
+     * @param name the method name
+     * @param descriptor the method descriptor
+     */
+    void invokeInterface(final String owner, final String name, final String descriptor) {
+        int arguments = arguments(descriptor);
+
+        op(0xB9, result(descriptor) - arguments - 1);
+        u2(writer.interfaceMethodRef(owner, name, descriptor));
+        u1(arguments + 1);
+        u1(0);
+    }
+
+    /**
+     * Create a reference array, with the
+     * length on top of the stack
+     *
+     * @param type the component internal name
+     */
+    void newArray(final String type) {
+        op(0xBD, 0);
+        u2(writer.classRef(type));
+    }
+
+    /**
+     * Cast the reference on top
+     * of the stack
+     *
+     * @param type the type internal name
+     */
+    void checkCast(final String type) {
+        op(0xC0, 0);
+        u2(writer.classRef(type));
+    }
+
+    /**
+     * Check the type of the reference
+     * on top of the stack
+     *
+     * @param type the type internal name
+     */
+    void instanceOf(final String type) {
+        op(0xC1, 0);
+        u2(writer.classRef(type));
+    }
+
+    /**
+     * Write a jump if the value on top of
+     * the stack is zero
+     *
+     * @return the jump to land later
+     */
+    int ifZero() {
+        return jump(0x99);
+    }
+
+    /**
+     * Write a jump if the value on top of
+     * the stack is null
+     *
+     * @return the jump to land later
+     */
+    int ifNull() {
+        return jump(0xC6);
+    }
+
+    /**
+     * Make a jump land at the current
+     * code position
+     *
+     * @param jump the jump
+     */
+    void land(final int jump) {
+        int offset = size - jump;
+        code[jump + 1] = (byte) (offset >> 8);
+        code[jump + 2] = (byte) offset;
+    }
+
+    private int jump(final int opcode) {
+        int position = size;
+        op(opcode, -1);
+        u2(0);
+
+        return position;
+    }
+
+    private void op(final int opcode, final int delta) {
+        u1(opcode);
+
+        stack += delta;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void u1(final int value) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+
+        code[size++] = (byte) value;
+    }
+
+    private void u2(final int value) {
+        u1(value >> 8);
+        u1(value);
+    }
+
+    private static int arguments(final String descriptor) {
+        int count = 0;
+        int index = 1;
+        while (descriptor.charAt(index) != ')') {
+            char type = descriptor.charAt(index);
+            boolean array = type == '[';
+            while (type == '[') {
+                type = descriptor.charAt(++index);
+            }
+            if (type == 'L') {
+                index = descriptor.indexOf(';', index);
+            }
+            if (!array && (type == 'J' || type == 'D')) count++;
+
+            count++;
+            index++;
+        }
+
+        return count;
+    }
+
+    private static int result(final String descriptor) {
+        char type = descriptor.charAt(descriptor.indexOf(')') + 1);
+        if (type == 'V') return 0;
+        return type == 'J' || type == 'D' ? 2 : 1;
+    }
+}
@@ -0,0 +1,49 @@
+package es.karmadev.api.script.body.compiler;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+
+/**
+ * Represents a script method compiled into a
+ * JVM class. A compiled method is linked to the
+ * body it has been compiled for, as the functions
+ * and methods it calls are resolved at compile time,
+ * and can be run by every body which shares the
+ * {@link es.karmadev.api.script.body.ScriptLinkage linkage}
+ * of that body
+ */
+public abstract class CompiledMethod {
+
+    private final ScriptBody body;
+
+    /**
+     * Initialize the compiled method
+     *
+     * @param body the body the method is linked to
+     */
+    protected CompiledMethod(final ScriptBody body) {
+        this.body = body;
+    }
+
+    /**
+     * Get the body the method
+     * is linked to
+     *
+     * @return the method body
+     */
+    public final ScriptBody getBody() {
+        return body;
+    }
+
+    /**
+     * Run the method
+     *
+     * @param body the body
+     * @param frame the method frame
+     * @return the method return
+     * @throws ScriptRuntimeException if there's an error
+     * during the script execution
+     */
+    public abstract Object invoke(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException;
+}
@@ -0,0 +1,53 @@
+package es.karmadev.api.script.body.compiler;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exec.ExecutionContext;
+import es.karmadev.api.script.lang.variables.VoidReturn;
+
+/**
+ * Compiled method which runs its instructions
+ * through the interpreter. It's used for methods
+ * which are too large to fit in a JVM method
+ */
+final class InterpretedMethod extends CompiledMethod {
+
+    private final Instruction[] instructions;
+
+    /**
+     * Initialize the method
+     *
+     * @param body the body the method is linked to
+     * @param instructions the method instructions
+     */
+    InterpretedMethod(final ScriptBody body, final Instruction[] instructions) {
+        super(body);
+        this.instructions = instructions;
+    }
+
+    /**
+     * Run the method
+     *
+     * @param body the body
+     * @param frame the method frame
+     * @return the method return
+     * @throws ScriptRuntimeException if there's an error
+     * during the script execution
+     */
+    @Override
+    public Object invoke(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        ExecutionContext context = ExecutionContext.current();
+        for (Instruction instruction : instructions) {
+            if (context != null) context.checkpoint();
+
+            Object response = instruction.execute(body, frame);
+            if (response != null) {
+                return response;
+            }
+        }
+
+        return VoidReturn.get();
+    }
+}
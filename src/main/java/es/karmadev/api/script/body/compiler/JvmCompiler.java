@@ -0,0 +1,319 @@
+package es.karmadev.api.script.body.compiler;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.body.instruction.Argument;
+import es.karmadev.api.script.body.instruction.ImportCallInstruction;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.SelfCallInstruction;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM compiler. The JVM compiler turns the instructions
+ * of a script method into a JVM class, so the JIT compiler
+ * can optimize and inline script code as any other code.
+ * <p>
+ * Calls to import functions and to other script methods are
+ * resolved against the body when the method is compiled, and
+ * are called directly from the generated code. Every other
+ * instruction, and every call which cannot be resolved, is
+ * kept in a field of its exact type and executed from the
+ * generated code, so the compiled method behaves exactly as
+ * the interpreted one.
+ * <p>
+ * Generated classes are defined as hidden classes when the JVM
+ * supports them, or through a dedicated class loader otherwise,
+ * so they can be unloaded once the method is not used anymore
+ */
+public final class JvmCompiler {
+
+    private final static String PACKAGE = "es/karmadev/api/script/body/compiler/";
+    private final static String SUPER = PACKAGE + "CompiledMethod";
+    private final static String BODY = "es/karmadev/api/script/body/ScriptBody";
+    private final static String VARIABLE = "es/karmadev/api/script/body/Variable";
+    private final static String METHOD = "es/karmadev/api/script/body/ScriptMethod";
+    private final static String FUNCTION = "es/karmadev/api/script/body/func/Function";
+    private final static String ARGUMENT = "es/karmadev/api/script/body/instruction/Argument";
+    private final static String CONTEXT = "es/karmadev/api/script/exec/ExecutionContext";
+    private final static String EXIT = "es/karmadev/api/script/lang/variables/ExitVoidReturn";
+    private final static String VOID = "es/karmadev/api/script/lang/variables/VoidReturn";
+
+    private final static String INVOKE = "(L" + BODY + ";[L" + VARIABLE + ";)Ljava/lang/Object;";
+    private final static String CONSTRUCTOR = "(L" + BODY + ";[Ljava/lang/Object;)V";
+
+    private final static int MAX_CODE = 65535;
+
+    private final static AtomicLong COUNTER = new AtomicLong();
+    private final static Method DEFINE_HIDDEN;
+    private final static Object NO_OPTIONS;
+
+    static {
+        Method define = null;
+        Object options = null;
+        try {
+            Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            options = Array.newInstance(option, 0);
+            define = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass());
+        } catch (ReflectiveOperationException ignored) {}
+
+        DEFINE_HIDDEN = define;
+        NO_OPTIONS = options;
+    }
+
+    private final ScriptBody body;
+    private final ClassWriter writer = new ClassWriter();
+    private final String name = PACKAGE + "Script$" + COUNTER.incrementAndGet();
+    private final List<Object> values = new ArrayList<>();
+    private final List<String> descriptors = new ArrayList<>();
+
+    private JvmCompiler(final ScriptBody body) {
+        this.body = body;
+    }
+
+    /**
+     * Compile a method
+     *
+     * @param body the body to link the method to
+     * @param instructions the method instructions
+     * @return the compiled method
+     * @throws ScriptWorkException if the generated
+     * class cannot be defined
+     */
+    public static CompiledMethod compile(final ScriptBody body, final Instruction[] instructions) throws ScriptWorkException {
+        JvmCompiler compiler = new JvmCompiler(body);
+
+        CodeBuilder code = new CodeBuilder(compiler.writer, 5);
+        code.invokeStatic(CONTEXT, "current", "()L" + CONTEXT + ";");
+        code.astore(3);
+        for (Instruction instruction : instructions) {
+            code.aload(3);
+            int running = code.ifNull();
+            code.aload(3);
+            code.invokeVirtual(CONTEXT, "checkpoint", "()V");
+            code.land(running);
+
+            compiler.instruction(code, instruction);
+        }
+        code.invokeStatic(VOID, "get", "()L" + VOID + ";");
+        code.areturn();
+
+        if (code.size() > MAX_CODE) {
+            return new InterpretedMethod(body, instructions);
+        }
+
+        return compiler.define(code);
+    }
+
+    private void instruction(final CodeBuilder code, final Instruction instruction) {
+        if (instruction instanceof ImportCallInstruction) {
+            ImportCallInstruction call = (ImportCallInstruction) instruction;
+            Argument[] arguments = call.getArguments();
+
+            Import imp = body.getImport(call.getImportName());
+            Function function = (imp == null ? null : imp.getFunction(call.getFunction(), arguments.length));
+            if (function != null && isLinkable(arguments)) {
+                callFunction(code, function, arguments);
+                return;
+            }
+        }
+
+        if (instruction instanceof SelfCallInstruction) {
+            SelfCallInstruction call = (SelfCallInstruction) instruction;
+            Argument[] arguments = call.getArguments();
+
+            Object target = null;
+            if (!call.isQualified()) {
+                target = body.findFunction(call.getMethod(), arguments.length);
+            }
+            if (target == null) {
+                target = body.getMethod(call.getMethod(), (Object[]) arguments);
+            }
+
+            if (target != null && isLinkable(arguments)) {
+                if (target instanceof Function) {
+                    callFunction(code, (Function) target, arguments);
+                    return;
+                }
+
+                code.aload(0);
+                code.getField(name, field(target, "L" + METHOD + ";"), "L" + METHOD + ";");
+                code.aload(1);
+                arguments(code, arguments);
+                code.invokeVirtual(METHOD, "invoke", INVOKE);
+                exit(code);
+                return;
+            }
+        }
+
+        String type = instruction.getClass().getName().replace('.', '/');
+        code.aload(0);
+        code.getField(name, field(instruction, "L" + type + ";"), "L" + type + ";");
+        code.aload(1);
+        code.aload(2);
+        code.invokeVirtual(type, "execute", INVOKE);
+        code.astore(4);
+        code.aload(4);
+        int proceed = code.ifNull();
+        code.aload(4);
+        code.areturn();
+        code.land(proceed);
+    }
+
+    private void callFunction(final CodeBuilder code, final Function function, final Argument[] arguments) {
+        code.aload(0);
+        code.getField(name, field(function, "L" + FUNCTION + ";"), "L" + FUNCTION + ";");
+        if (arguments.length <= 3) {
+            StringBuilder descriptor = new StringBuilder("(");
+            for (Argument argument : arguments) {
+                argument(code, argument);
+                descriptor.append("L").append(VARIABLE).append(";");
+            }
+
+            code.invokeInterface(FUNCTION, "execute" + arguments.length, descriptor.append(")Ljava/lang/Object;").toString());
+        } else {
+            arguments(code, arguments);
+            code.invokeInterface(FUNCTION, "execute", "([L" + VARIABLE + ";)Ljava/lang/Object;");
+        }
+        exit(code);
+    }
+
+    private void exit(final CodeBuilder code) {
+        code.astore(4);
+        code.aload(4);
+        code.instanceOf(EXIT);
+        int proceed = code.ifZero();
+        code.aload(4);
+        code.areturn();
+        code.land(proceed);
+    }
+
+    private void arguments(final CodeBuilder code, final Argument[] arguments) {
+        code.push(arguments.length);
+        code.newArray(VARIABLE);
+        for (int i = 0; i < arguments.length; i++) {
+            Argument argument = arguments[i];
+
+            code.dup();
+            code.push(i);
+            argument(code, argument);
+            code.aastore();
+        }
+    }
+
+    private void argument(final CodeBuilder code, final Argument argument) {
+        if (argument.isProperty()) {
+            code.aload(0);
+            code.getField(name, field(argument, "L" + ARGUMENT + ";"), "L" + ARGUMENT + ";");
+            code.aload(2);
+            code.invokeVirtual(ARGUMENT, "resolve", "([L" + VARIABLE + ";)L" + VARIABLE + ";");
+            return;
+        }
+
+        if (argument.getSlot() != -1) {
+            code.aload(2);
+            code.push(argument.getSlot());
+            code.aaload();
+            return;
+        }
+
+        code.aload(0);
+        code.getField(name, field(argument.getConstant(), "L" + VARIABLE + ";"), "L" + VARIABLE + ";");
+    }
+
+    private String field(final Object value, final String descriptor) {
+        String field = "f" + values.size();
+        writer.field(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, field, descriptor);
+
+        values.add(value);
+        descriptors.add(descriptor);
+
+        return field;
+    }
+
+    private CompiledMethod define(final CodeBuilder invoke) {
+        writer.method(ClassWriter.ACC_PUBLIC, "invoke", INVOKE, invoke);
+
+        CodeBuilder constructor = new CodeBuilder(writer, 3);
+        constructor.aload(0);
+        constructor.aload(1);
+        constructor.invokeSpecial(SUPER, "<init>", "(L" + BODY + ";)V");
+        for (int i = 0; i < values.size(); i++) {
+            String descriptor = descriptors.get(i);
+
+            constructor.aload(0);
+            constructor.aload(2);
+            constructor.push(i);
+            constructor.aaload();
+            constructor.checkCast(descriptor.substring(1, descriptor.length() - 1));
+            constructor.putField(name, "f" + i, descriptor);
+        }
+        constructor.vreturn();
+        writer.method(ClassWriter.ACC_PUBLIC, "<init>", CONSTRUCTOR, constructor);
+
+        byte[] bytes = writer.toByteArray(ClassWriter.ACC_PUBLIC | ClassWriter.ACC_FINAL | ClassWriter.ACC_SUPER, name, SUPER);
+        try {
+            Class<?> type = defineClass(bytes);
+            return (CompiledMethod) type.getConstructor(ScriptBody.class, Object[].class)
+                    .newInstance(body, values.toArray());
+        } catch (InvocationTargetException ex) {
+            throw new ScriptWorkException(ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new ScriptWorkException(ex);
+        }
+    }
+
+    private Class<?> defineClass(final byte[] bytes) throws ReflectiveOperationException {
+        if (DEFINE_HIDDEN != null) {
+            try {
+                MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN.invoke(MethodHandles.lookup(), bytes, true, NO_OPTIONS);
+                return lookup.lookupClass();
+            } catch (IllegalAccessException ignored) {}
+        }
+
+        return new ScriptClassLoader(JvmCompiler.class.getClassLoader()).define(name.replace('/', '.'), bytes);
+    }
+
+    private static boolean isLinkable(final Argument[] arguments) {
+        for (Argument argument : arguments) {
+            if (argument.getSlot() == -1 && argument.getConstant() == null) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Class loader which defines a single
+     * generated class
+     */
+    private final static class ScriptClassLoader extends ClassLoader {
+
+        /**
+         * Initialize the class loader
+         *
+         * @param parent the parent class loader
+         */
+        ScriptClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * Define the generated class
+         *
+         * @param name the class name
+         * @param bytes the class file bytes
+         * @return the class
+         */
+        Class<?> define(final String name, final byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
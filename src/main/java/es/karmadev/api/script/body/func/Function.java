@@ -4,10 +4,19 @@ import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.Variable;
 
 /**
- * Represents a script method
+ * Represents a script method. Calls with up to
+ * three arguments go through the arity specialized
+ * entry points, so they don't need an arguments array.
+ * By default, those entry points pack the arguments and
+ * call {@link #execute(Variable...)}
  */
 public interface Function {
 
+    /**
+     * An empty arguments array
+     */
+    Variable[] NO_PARAMETERS = new Variable[0];
+
     /**
      * Get the import the function
      * pertains to
@@ -50,4 +59,50 @@ public interface Function {
      * @return the method result
      */
     Object execute(final Variable... parameters);
+
+    /**
+     * Execute a method without
+     * parameters
+     *
+     * @return the method result
+     */
+    default Object execute0() {
+        return execute(NO_PARAMETERS);
+    }
+
+    /**
+     * Execute a method with a
+     * single parameter
+     *
+     * @param first the first parameter
+     * @return the method result
+     */
+    default Object execute1(final Variable first) {
+        return execute(new Variable[]{first});
+    }
+
+    /**
+     * Execute a method with two
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @return the method result
+     */
+    default Object execute2(final Variable first, final Variable second) {
+        return execute(new Variable[]{first, second});
+    }
+
+    /**
+     * Execute a method with three
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @param third the third parameter
+     * @return the method result
+     */
+    default Object execute3(final Variable first, final Variable second, final Variable third) {
+        return execute(new Variable[]{first, second, third});
+    }
 }
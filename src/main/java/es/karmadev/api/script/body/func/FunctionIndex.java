@@ -0,0 +1,145 @@
+package es.karmadev.api.script.body.func;
+
+import es.karmadev.api.script.body.Import;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Function index. The function index resolves a
+ * function by its name and number of parameters
+ * without iterating through all the known functions.
+ * Every possible resolution is computed when the index
+ * is built, so a lookup is a map lookup followed by an
+ * array access.
+ * <p>
+ * A function with the exact number of parameters always
+ * takes precedence. Otherwise, the minimum parameters
+ * function which requires the most parameters (and still
+ * accepts the call) is chosen.
+ */
+public final class FunctionIndex {
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Initialize the function index
+     *
+     * @param functions the functions to index
+     */
+    public FunctionIndex(final Function... functions) {
+        Map<String, List<Function>> grouped = new HashMap<>();
+        for (Function function : functions) {
+            grouped.computeIfAbsent(function.getName(), (k) -> new ArrayList<>()).add(function);
+        }
+
+        Map<String, Entry> entries = new HashMap<>();
+        for (Map.Entry<String, List<Function>> group : grouped.entrySet()) {
+            entries.put(group.getKey(), new Entry(group.getValue()));
+        }
+
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Create a function index for all the
+     * functions of the imports
+     *
+     * @param imports the imports
+     * @return the function index
+     */
+    public static FunctionIndex of(final Collection<Import> imports) {
+        List<Function> functions = new ArrayList<>();
+        for (Import imp : imports) {
+            Collections.addAll(functions, imp.getFunctions());
+        }
+
+        return new FunctionIndex(functions.toArray(new Function[0]));
+    }
+
+    /**
+     * Get a function
+     *
+     * @param name the function name
+     * @param parameters the function parameters amount
+     * @return the function, or null if there's no
+     * function which accepts the call
+     */
+    public Function get(final String name, final int parameters) {
+        Entry entry = entries.get(name);
+        if (entry == null || parameters < 0) return null;
+
+        return entry.get(parameters);
+    }
+
+    /**
+     * Get all the functions with the
+     * specified name
+     *
+     * @param name the function name
+     * @return the functions
+     */
+    public Function[] getAll(final String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) return new Function[0];
+
+        return entry.functions.clone();
+    }
+
+    /**
+     * Represents all the resolutions
+     * of a function name
+     */
+    private final static class Entry {
+
+        private final Function[] functions;
+        private final Function[] byParameters;
+        private final Function overflow;
+
+        private Entry(final List<Function> functions) {
+            this.functions = functions.toArray(new Function[0]);
+
+            int max = 0;
+            for (Function function : functions) {
+                max = Math.max(max, function.getParameters());
+            }
+
+            byParameters = new Function[max + 1];
+            for (int count = 0; count <= max; count++) {
+                byParameters[count] = resolve(this.functions, count);
+            }
+
+            overflow = resolve(this.functions, max + 1);
+        }
+
+        private Function get(final int parameters) {
+            if (parameters < byParameters.length) return byParameters[parameters];
+            return overflow;
+        }
+
+        private static Function resolve(final Function[] functions, final int parameters) {
+            Function match = null;
+            for (Function function : functions) {
+                int params = function.getParameters();
+                if (function.isMinParameters()) {
+                    if (params <= parameters && (match == null || params >= match.getParameters()) &&
+                            (match == null || match.isMinParameters())) {
+                        match = function;
+                    }
+
+                    continue;
+                }
+
+                if (params == parameters && (match == null || match.isMinParameters())) {
+                    match = function;
+                }
+            }
+
+            return match;
+        }
+    }
+}
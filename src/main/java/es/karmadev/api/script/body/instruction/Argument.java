@@ -0,0 +1,128 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.lang.bind.MemberSite;
+
+/**
+ * Represents a pre-split instruction argument. An
+ * argument can also read the properties of a host
+ * object held by a method variable, for instance
+ * <code>player.name</code>
+ */
+public final class Argument {
+
+    private final String raw;
+    private final int slot;
+    private final Variable constant;
+    private final MemberSite[] properties;
+
+    /**
+     * Initialize the argument
+     *
+     * @param raw the raw argument
+     * @param layout the method frame layout
+     * @param pool the script constant pool
+     */
+    public Argument(final String raw, final FrameLayout layout, final ConstantPool pool) {
+        if (raw.endsWith("::")) {
+            this.raw = raw.substring(0, raw.length() - 2);
+        } else {
+            this.raw = raw;
+        }
+
+        this.constant = pool.constant(this.raw);
+
+        String[] path = (constant == null ? this.raw.split("\\.") : null);
+        if (path != null && path.length > 1) {
+            this.slot = layout.slot(path[0]);
+            this.properties = new MemberSite[path.length - 1];
+            for (int i = 1; i < path.length; i++) {
+                properties[i - 1] = MemberSite.property(path[i]);
+            }
+        } else {
+            this.slot = (constant == null ? layout.slot(this.raw) : -1);
+            this.properties = null;
+        }
+    }
+
+    /**
+     * Get the raw argument
+     *
+     * @return the raw argument
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Get the frame slot the argument
+     * refers to. If the argument is a property,
+     * this is the slot of the host object
+     *
+     * @return the argument slot, or -1 if the
+     * argument is not a method variable
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Get if the argument reads a property
+     * of the variable in its slot, instead of
+     * the variable itself
+     *
+     * @return if the argument is a property
+     */
+    public boolean isProperty() {
+        return properties != null;
+    }
+
+    /**
+     * Get the constant the argument
+     * refers to
+     *
+     * @return the argument constant, or null
+     * if the argument is not a literal
+     */
+    public Variable getConstant() {
+        return constant;
+    }
+
+    /**
+     * Resolve the argument value
+     *
+     * @param frame the method frame
+     * @return the argument value, or null if the
+     * argument refers to an undefined variable
+     */
+    public Variable resolve(final Variable[] frame) {
+        if (slot == -1) return constant;
+
+        Variable value = frame[slot];
+        if (properties != null) {
+            for (MemberSite property : properties) {
+                value = property.get(value);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Split the raw arguments into argument
+     * descriptors
+     *
+     * @param raw the raw arguments
+     * @param layout the method frame layout
+     * @param pool the script constant pool
+     * @return the arguments
+     */
+    public static Argument[] split(final String[] raw, final FrameLayout layout, final ConstantPool pool) {
+        Argument[] arguments = new Argument[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            arguments[i] = new Argument(raw[i], layout, pool);
+        }
+
+        return arguments;
+    }
+}
@@ -0,0 +1,76 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.ScriptLinkage;
+
+/**
+ * Represents the resolved target of a call
+ * instruction. A call site cache is immutable, so
+ * it can be safely published to every thread which
+ * executes the instruction.
+ * <p>
+ * Targets are cached per {@link ScriptLinkage}, and a
+ * site keeps the targets of the last linkages it has run
+ * on, newest first, so a method shared by a reloaded body
+ * and the body it replaced does not resolve its calls again
+ * every time it switches between them
+ */
+final class CallSiteCache {
+
+    /**
+     * The maximum amount of linkages
+     * a site caches the target of
+     */
+    final static int MAX_ENTRIES = 4;
+
+    final ScriptLinkage linkage;
+    final Object target;
+    final CallSiteCache next;
+
+    /**
+     * Initialize the call site cache
+     *
+     * @param linkage the linkage the target
+     *                has been resolved for
+     * @param target the resolved target
+     * @param next the cache of the previous linkages
+     */
+    private CallSiteCache(final ScriptLinkage linkage, final Object target, final CallSiteCache next) {
+        this.linkage = linkage;
+        this.target = target;
+        this.next = next;
+    }
+
+    /**
+     * Find the cache of a linkage
+     *
+     * @param cache the site cache
+     * @param linkage the linkage
+     * @return the cache of the linkage, or null
+     * if the linkage is not cached
+     */
+    static CallSiteCache find(final CallSiteCache cache, final ScriptLinkage linkage) {
+        for (CallSiteCache entry = cache; entry != null; entry = entry.next) {
+            if (entry.linkage == linkage) return entry;
+        }
+
+        return null;
+    }
+
+    /**
+     * Add the target of a linkage to a site cache. The
+     * oldest linkage is dropped if the cache is full
+     *
+     * @param cache the site cache
+     * @param linkage the linkage
+     * @param target the resolved target
+     * @return the new site cache
+     */
+    static CallSiteCache add(final CallSiteCache cache, final ScriptLinkage linkage, final Object target) {
+        return new CallSiteCache(linkage, target, copy(cache, MAX_ENTRIES - 1));
+    }
+
+    private static CallSiteCache copy(final CallSiteCache cache, final int entries) {
+        if (cache == null || entries == 0) return null;
+        return new CallSiteCache(cache.linkage, cache.target, copy(cache.next, entries - 1));
+    }
+}
@@ -0,0 +1,198 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.Variable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Script constant pool. The constant pool classifies
+ * the literals of a script when it's compiled, and
+ * materializes them into shared immutable variables, so
+ * the literals are never parsed when the script runs.
+ * Equal literals share the same variable
+ */
+public final class ConstantPool {
+
+    private final Map<String, Variable> constants = new HashMap<>();
+    private final Map<Variable, Integer> indices = new IdentityHashMap<>();
+    private final List<Variable> ordered = new ArrayList<>();
+
+    /**
+     * Get the constant of a literal
+     *
+     * @param raw the raw literal
+     * @return the constant variable, or null if the
+     * raw value is not a literal
+     */
+    public synchronized Variable constant(final String raw) {
+        Variable constant = constants.get(raw);
+        if (constant != null) return constant;
+
+        constant = parse(raw);
+        if (constant != null) {
+            constants.put(raw, constant);
+            if (!indices.containsKey(constant)) {
+                indices.put(constant, ordered.size());
+                ordered.add(constant);
+            }
+        }
+
+        return constant;
+    }
+
+    /**
+     * Define the constant of a literal which has
+     * already been parsed, for instance by a script
+     * image. The literal is not parsed again
+     *
+     * @param raw the raw literal
+     * @param constant the constant variable
+     */
+    public synchronized void define(final String raw, final Variable constant) {
+        constants.put(raw, constant);
+        if (!indices.containsKey(constant)) {
+            indices.put(constant, ordered.size());
+            ordered.add(constant);
+        }
+    }
+
+    /**
+     * Get the index of a constant in the pool
+     *
+     * @param constant the constant
+     * @return the constant index, or -1 if the
+     * constant is not part of the pool
+     */
+    public synchronized int indexOf(final Variable constant) {
+        Integer index = indices.get(constant);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get all the constants of the pool, in
+     * the order they were defined
+     *
+     * @return the pool constants
+     */
+    public synchronized Variable[] getConstants() {
+        return ordered.toArray(new Variable[0]);
+    }
+
+    /**
+     * Get the amount of constants in
+     * the pool
+     *
+     * @return the pool size
+     */
+    public synchronized int size() {
+        return ordered.size();
+    }
+
+    /**
+     * Parse a literal
+     *
+     * @param raw the raw literal
+     * @return the literal value, or null if the
+     * raw value is not a literal
+     */
+    public static Variable parse(final String raw) {
+        int length = raw.length();
+        if (length == 0) return null;
+
+        char first = raw.charAt(0);
+        if (first == '"' || first == '\'') {
+            return Variable.of(raw.substring(1, Math.max(1, length - 1)));
+        }
+
+        if (raw.equals("true")) return Variable.of(true);
+        if (raw.equals("false")) return Variable.of(false);
+
+        if (raw.indexOf('.') != -1 || raw.indexOf(',') != -1) {
+            if (isDecimal(raw)) {
+                return Variable.of(Double.parseDouble(raw));
+            }
+
+            return null;
+        }
+
+        return parseLong(raw);
+    }
+
+    private static Variable parseLong(final String raw) {
+        int length = raw.length();
+        int index = 0;
+
+        boolean negative = false;
+        char first = raw.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++index == length) return null;
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+
+        long result = 0;
+        for (; index < length; index++) {
+            int digit = raw.charAt(index) - '0';
+            if (digit < 0 || digit > 9) return null;
+            if (result < multiplyLimit) return null;
+
+            result *= 10;
+            if (result < limit + digit) return null;
+
+            result -= digit;
+        }
+
+        return Variable.of(negative ? result : -result);
+    }
+
+    private static boolean isDecimal(final String raw) {
+        int length = raw.length();
+        int index = 0;
+
+        char first = raw.charAt(0);
+        if (first == '-' || first == '+') index++;
+
+        int digits = 0;
+        while (index < length && isDigit(raw.charAt(index))) {
+            index++;
+            digits++;
+        }
+        if (index < length && raw.charAt(index) == '.') {
+            index++;
+            while (index < length && isDigit(raw.charAt(index))) {
+                index++;
+                digits++;
+            }
+        }
+        if (digits == 0) return false;
+
+        if (index < length && (raw.charAt(index) == 'e' || raw.charAt(index) == 'E')) {
+            index++;
+            if (index < length && (raw.charAt(index) == '-' || raw.charAt(index) == '+')) index++;
+
+            int exponent = 0;
+            while (index < length && isDigit(raw.charAt(index))) {
+                index++;
+                exponent++;
+            }
+            if (exponent == 0) return false;
+        }
+
+        if (index < length) {
+            char suffix = raw.charAt(index);
+            if (suffix == 'd' || suffix == 'D' || suffix == 'f' || suffix == 'F') index++;
+        }
+
+        return index == length;
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+}
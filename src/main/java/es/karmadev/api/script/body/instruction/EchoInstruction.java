@@ -0,0 +1,133 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exec.OutputSink;
+import es.karmadev.api.script.lang.imports.sys.PrintLn;
+import es.karmadev.api.script.lang.imports.sys.PrintTemplate;
+import es.karmadev.api.script.lang.imports.sys.System;
+
+/**
+ * Represents an echo statement. An echo statement
+ * either prints its literal text, or formats its
+ * arguments when they are wrapped between brackets,
+ * for instance <code>echo ['$0', message]</code>. When
+ * the format is a literal, it's compiled once, when the
+ * instruction is created
+ */
+public final class EchoInstruction extends Instruction {
+
+    private final String text;
+    private final Argument[] arguments;
+    private final PrintTemplate template;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     * @param text the literal text to print, or null
+     *             if the echo has arguments
+     * @param arguments the echo arguments
+     */
+    public EchoInstruction(final CharSequence source, final int offset, final String text, final Argument[] arguments) {
+        super(source, offset);
+        this.text = text;
+        this.arguments = arguments;
+
+        Variable format = (arguments.length > 0 ? arguments[0].getConstant() : null);
+        this.template = (format == null ? null : PrintTemplate.compile(PrintTemplate.text(format)));
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    @Override
+    public InstructionType getType() {
+        return InstructionType.ECHO;
+    }
+
+    /**
+     * Get the literal echo text
+     *
+     * @return the echo text, or null if
+     * the echo has arguments
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the echo arguments
+     *
+     * @return the echo arguments
+     */
+    public Argument[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * Get the compiled echo format
+     *
+     * @return the echo template, or null if
+     * the format is not a literal
+     */
+    public PrintTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    @Override
+    public Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        if (text != null) {
+            OutputSink.current().writeLine(text);
+            return null;
+        }
+
+        if (template != null) {
+            switch (arguments.length) {
+                case 1:
+                    PrintLn.println(template);
+                    return null;
+                case 2:
+                    PrintLn.println(template, resolve(arguments[1], frame, null, null));
+                    return null;
+                case 3:
+                    PrintLn.println(template, resolve(arguments[1], frame, null, null),
+                            resolve(arguments[2], frame, null, null));
+                    return null;
+                case 4:
+                    PrintLn.println(template, resolve(arguments[1], frame, null, null),
+                            resolve(arguments[2], frame, null, null), resolve(arguments[3], frame, null, null));
+                    return null;
+                default:
+                    Variable[] values = new Variable[arguments.length];
+                    for (int i = 1; i < values.length; i++) {
+                        values[i] = resolve(arguments[i], frame, null, null);
+                    }
+
+                    PrintLn.println(template, values, 1);
+                    return null;
+            }
+        }
+
+        Function print = System.getImport().getFunction("println", 0);
+        call(print, arguments, frame, null);
+
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exec.OutputSink;
+import es.karmadev.api.script.lang.variables.ExitVoidReturn;
+
+/**
+ * Represents an exit statement, for
+ * instance <code>exit 1</code>
+ */
+public final class ExitInstruction extends Instruction {
+
+    private final String code;
+    private final String message;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     * @param code the exit code
+     */
+    public ExitInstruction(final CharSequence source, final int offset, final String code) {
+        super(source, offset);
+        this.code = code;
+        this.message = "Exiting program (" + code + ").";
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    @Override
+    public InstructionType getType() {
+        return InstructionType.EXIT;
+    }
+
+    /**
+     * Get the exit code
+     *
+     * @return the exit code
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Get the message printed
+     * when the program exits
+     *
+     * @return the exit message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    @Override
+    public Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        OutputSink output = OutputSink.current();
+        output.write(message);
+        output.flush();
+        return ExitVoidReturn.get();
+    }
+}
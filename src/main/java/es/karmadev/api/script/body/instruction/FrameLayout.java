@@ -0,0 +1,105 @@
+package es.karmadev.api.script.body.instruction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the layout of a method frame. The
+ * frame layout assigns an index to each method
+ * variable, so variables are resolved by index when
+ * the method runs, instead of by name
+ */
+public final class FrameLayout {
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final int parameters;
+    private final int restSlot;
+
+    private int thisSlot = -1;
+
+    /**
+     * Initialize the frame layout
+     *
+     * @param parameters the method parameters
+     */
+    public FrameLayout(final String... parameters) {
+        int rest = -1;
+        for (int i = 0; i < parameters.length; i++) {
+            String name = parameters[i];
+            if (name.endsWith("::")) {
+                name = name.substring(0, name.length() - 2);
+                rest = i;
+            }
+
+            slots.put(name, i);
+        }
+
+        this.parameters = parameters.length;
+        this.restSlot = rest;
+    }
+
+    /**
+     * Get the slot of a variable. The <code>this</code>
+     * variable gets its slot assigned the first time it's
+     * requested
+     *
+     * @param name the variable name
+     * @return the variable slot, or -1 if the
+     * variable is not defined
+     */
+    public int slot(final String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) return slot;
+
+        if (name.equals("this")) {
+            if (thisSlot == -1) {
+                thisSlot = parameters;
+            }
+
+            return thisSlot;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the number of slots the frame
+     * requires
+     *
+     * @return the frame size
+     */
+    public int size() {
+        return thisSlot == -1 ? parameters : parameters + 1;
+    }
+
+    /**
+     * Get the number of parameters
+     *
+     * @return the parameters
+     */
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Get the slot of the multiple parameters
+     * modifier parameter
+     *
+     * @return the rest parameter slot, or -1
+     * if the method has no rest parameter
+     */
+    public int getRestSlot() {
+        return restSlot;
+    }
+
+    /**
+     * Get the slot of the <code>this</code>
+     * variable
+     *
+     * @return the this slot, or -1 if the
+     * method never uses this
+     */
+    public int getThisSlot() {
+        return thisSlot;
+    }
+}
@@ -0,0 +1,107 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.lang.bind.MemberSite;
+
+/**
+ * Represents a call to a method of a host object held
+ * by a method variable, for instance <code>player#teleport(x, y)</code>.
+ * Method variables take precedence over imports with
+ * the same name
+ */
+public final class HostCallInstruction extends Instruction {
+
+    private final String receiver;
+    private final int slot;
+    private final String method;
+    private final Argument[] arguments;
+    private final MemberSite site;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     * @param receiver the name of the variable holding
+     *                 the host object
+     * @param slot the frame slot of the variable
+     * @param method the method name
+     * @param arguments the method arguments
+     */
+    public HostCallInstruction(final CharSequence source, final int offset, final String receiver, final int slot,
+                               final String method, final Argument[] arguments) {
+        super(source, offset);
+        this.receiver = receiver;
+        this.slot = slot;
+        this.method = method;
+        this.arguments = arguments;
+        this.site = MemberSite.method(method, arguments.length);
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    @Override
+    public InstructionType getType() {
+        return InstructionType.CALL_HOST;
+    }
+
+    /**
+     * Get the name of the variable
+     * holding the host object
+     *
+     * @return the receiver name
+     */
+    public String getReceiver() {
+        return receiver;
+    }
+
+    /**
+     * Get the frame slot of the variable
+     * holding the host object
+     *
+     * @return the receiver slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Get the method name
+     *
+     * @return the method name
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the method arguments
+     *
+     * @return the method arguments
+     */
+    public Argument[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    @Override
+    public Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        site.invoke(frame[slot], resolve(arguments, frame, null, null));
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exception.body.NoSuchImportException;
+import es.karmadev.api.script.exception.body.NoSuchInvokeException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.variables.ExitVoidReturn;
+
+/**
+ * Represents a call to an import function, for
+ * instance <code>system#println('Hello world!')</code>
+ */
+public final class ImportCallInstruction extends Instruction {
+
+    private final String importName;
+    private final String function;
+    private final Argument[] arguments;
+
+    private volatile CallSiteCache cache;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     * @param importName the import name
+     * @param function the function name
+     * @param arguments the function arguments
+     */
+    public ImportCallInstruction(final CharSequence source, final int offset, final String importName, final String function, final Argument[] arguments) {
+        super(source, offset);
+        this.importName = importName;
+        this.function = function;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    @Override
+    public InstructionType getType() {
+        return InstructionType.CALL_IMPORT;
+    }
+
+    /**
+     * Get the import name
+     *
+     * @return the import name
+     */
+    public String getImportName() {
+        return importName;
+    }
+
+    /**
+     * Get the function name
+     *
+     * @return the function name
+     */
+    public String getFunction() {
+        return function;
+    }
+
+    /**
+     * Get the function arguments
+     *
+     * @return the function arguments
+     */
+    public Argument[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    @Override
+    public Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        CallSiteCache cache = CallSiteCache.find(this.cache, body.getLinkage());
+        if (cache == null) {
+            cache = link(body);
+        }
+
+        Function func = (Function) cache.target;
+        Import imp = func.getImport();
+
+        Object response = call(func, arguments, frame, imp);
+        if (response instanceof ExitVoidReturn) {
+            return response;
+        }
+
+        return null;
+    }
+
+    private CallSiteCache link(final ScriptBody body) {
+        Import imp = body.getImport(importName);
+        if (imp == null) {
+            throw new ScriptWorkException(
+                    new NoSuchImportException(importName)
+            );
+        }
+
+        Function func = imp.getFunction(function, arguments.length);
+        if (func == null) throw new ScriptWorkException(new NoSuchInvokeException(imp, function));
+
+        CallSiteCache cache = CallSiteCache.add(this.cache, body.getLinkage(), func);
+        this.cache = cache;
+
+        return cache;
+    }
+}
@@ -0,0 +1,159 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exception.body.NoSuchDefException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.parser.ScriptLexer;
+
+/**
+ * Represents a pre-parsed method instruction. Instructions
+ * are immutable and created only once per method, so they
+ * can be executed as many times as required without parsing
+ * the method source again
+ */
+public abstract class Instruction {
+
+    private final CharSequence source;
+    private final int offset;
+
+    private String line;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     */
+    protected Instruction(final CharSequence source, final int offset) {
+        this.source = source;
+        this.offset = offset;
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    public abstract InstructionType getType();
+
+    /**
+     * Get the offset of the instruction
+     * line in the source
+     *
+     * @return the instruction offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the source line which generated
+     * this instruction
+     *
+     * @return the instruction line
+     */
+    public String getLine() {
+        if (line == null) {
+            line = ScriptLexer.lineAt(source, offset);
+        }
+
+        return line;
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    public abstract Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException;
+
+    /**
+     * Call a function. Calls with up to three arguments
+     * go through the function arity specialized entry points,
+     * so no arguments array is created. If the import is null,
+     * undefined arguments are reported without the function
+     *
+     * @param func the function
+     * @param arguments the call arguments
+     * @param frame the method frame
+     * @param imp the function import
+     * @return the function result
+     * @throws ScriptWorkException if an argument is not defined
+     */
+    protected final Object call(final Function func, final Argument[] arguments, final Variable[] frame,
+                                final Import imp) throws ScriptWorkException {
+        switch (arguments.length) {
+            case 0:
+                return func.execute0();
+            case 1:
+                return func.execute1(resolve(arguments[0], frame, imp, func));
+            case 2:
+                return func.execute2(resolve(arguments[0], frame, imp, func), resolve(arguments[1], frame, imp, func));
+            case 3:
+                return func.execute3(resolve(arguments[0], frame, imp, func), resolve(arguments[1], frame, imp, func),
+                        resolve(arguments[2], frame, imp, func));
+            default:
+                return func.execute(resolve(arguments, frame, imp, func));
+        }
+    }
+
+    /**
+     * Resolve the arguments
+     *
+     * @param arguments the arguments to resolve
+     * @param frame the method frame
+     * @param imp the import being invoked, if any
+     * @param func the function being invoked, if any
+     * @return the resolved arguments
+     * @throws ScriptWorkException if an argument refers to an
+     * undefined variable
+     */
+    protected final Variable[] resolve(final Argument[] arguments, final Variable[] frame,
+                                       final Import imp, final Function func) throws ScriptWorkException {
+        Variable[] values = new Variable[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = resolve(arguments[i], frame, imp, func);
+        }
+
+        return values;
+    }
+
+    /**
+     * Resolve an argument
+     *
+     * @param argument the argument
+     * @param frame the method frame
+     * @param imp the import of the called function, or
+     *            null if the argument is not passed to a function
+     * @param func the called function
+     * @return the argument value
+     * @throws ScriptWorkException if the argument is not defined
+     */
+    protected final Variable resolve(final Argument argument, final Variable[] frame,
+                                     final Import imp, final Function func) throws ScriptWorkException {
+        Variable value = argument.resolve(frame);
+        if (value == null) {
+            if (imp == null) {
+                throw new ScriptWorkException(
+                        new NoSuchDefException(getLine(), argument.getRaw())
+                );
+            }
+
+            throw new ScriptWorkException(
+                    new NoSuchDefException(imp, func, getLine(), argument.getRaw())
+            );
+        }
+
+        return value;
+    }
+}
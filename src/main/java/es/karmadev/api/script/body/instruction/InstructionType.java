@@ -0,0 +1,12 @@
+package es.karmadev.api.script.body.instruction;
+
+/**
+ * Represents an instruction type
+ */
+public enum InstructionType {
+    CALL_IMPORT,
+    CALL_SELF,
+    CALL_HOST,
+    ECHO,
+    EXIT
+}
@@ -0,0 +1,270 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.exception.InvalidSyntaxException;
+import es.karmadev.api.script.lang.variables.DoubleVariable;
+import es.karmadev.api.script.lang.variables.LongVariable;
+import es.karmadev.api.script.parser.ScriptLexer;
+import es.karmadev.api.script.parser.Token;
+import es.karmadev.api.script.parser.TokenType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Method compiler. The method compiler turns the
+ * raw content of a script method into a list of
+ * instructions, so the method content is parsed
+ * only once
+ */
+public final class MethodCompiler {
+
+    private MethodCompiler() {}
+
+    /**
+     * Compile the method content
+     *
+     * @param content the method content
+     * @param layout the method frame layout
+     * @param pool the script constant pool
+     * @return the method instructions
+     * @throws InvalidSyntaxException if the content
+     * has invalid syntax
+     */
+    public static Instruction[] compile(final CharSequence content, final FrameLayout layout, final ConstantPool pool) throws InvalidSyntaxException {
+        return compile(new ScriptLexer(content), layout, pool, false);
+    }
+
+    /**
+     * Compile a method body. If the body is braced, the
+     * compiler reads until the method closing brace, which
+     * gets consumed. Otherwise, it reads until the end of
+     * the source. The statements after an exit statement
+     * are checked, but never compiled
+     *
+     * @param lexer the lexer to read the body from
+     * @param layout the method frame layout
+     * @param pool the script constant pool
+     * @param braced if the body is closed by a brace
+     * @return the method instructions
+     * @throws InvalidSyntaxException if the body
+     * has invalid syntax
+     */
+    public static Instruction[] compile(final ScriptLexer lexer, final FrameLayout layout, final ConstantPool pool,
+                                        final boolean braced) throws InvalidSyntaxException {
+        return compile(lexer, layout, pool, Collections.emptySet(), braced);
+    }
+
+    /**
+     * Compile a method body. If the body is braced, the
+     * compiler reads until the method closing brace, which
+     * gets consumed. Otherwise, it reads until the end of
+     * the source. The statements after an exit statement
+     * are checked, but never compiled.
+     * <p>
+     * A qualified call such as <code>name#fn(...)</code> calls
+     * a host method of the <code>name</code> variable, unless the
+     * script declares an import with that name, in which case the
+     * import function is called. So renaming a parameter never
+     * changes the target of an import call
+     *
+     * @param lexer the lexer to read the body from
+     * @param layout the method frame layout
+     * @param pool the script constant pool
+     * @param imports the names of the imports
+     *                declared by the script
+     * @param braced if the body is closed by a brace
+     * @return the method instructions
+     * @throws InvalidSyntaxException if the body
+     * has invalid syntax
+     */
+    public static Instruction[] compile(final ScriptLexer lexer, final FrameLayout layout, final ConstantPool pool,
+                                        final Set<String> imports, final boolean braced) throws InvalidSyntaxException {
+        List<Instruction> instructions = new ArrayList<>();
+        boolean exited = false;
+
+        while (true) {
+            Token token = lexer.peek();
+            if (token.is(TokenType.NEWLINE)) {
+                lexer.next();
+                continue;
+            }
+
+            if (token.is(TokenType.EOF)) {
+                if (braced) throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(),
+                        "Missing method closing brace");
+                break;
+            }
+
+            if (braced && token.is(TokenType.RIGHT_BRACE)) {
+                lexer.next();
+                break;
+            }
+
+            Instruction instruction = statement(lexer, layout, pool, imports);
+            endOfLine(lexer);
+
+            if (!exited && instruction != null) {
+                instructions.add(instruction);
+                exited = instruction.getType() == InstructionType.EXIT;
+            }
+        }
+
+        return instructions.toArray(new Instruction[0]);
+    }
+
+    /**
+     * Skip a method body, without compiling it. The
+     * lexer is left after the method closing brace
+     *
+     * @param lexer the lexer to read the body from
+     * @return the offset of the method closing brace
+     * @throws InvalidSyntaxException if the method has
+     * no closing brace
+     */
+    public static int skip(final ScriptLexer lexer) throws InvalidSyntaxException {
+        boolean lineStart = true;
+        while (true) {
+            Token token = lexer.next();
+            if (token.is(TokenType.EOF)) {
+                throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(),
+                        "Missing method closing brace");
+            }
+            if (token.is(TokenType.NEWLINE)) {
+                lineStart = true;
+                continue;
+            }
+
+            if (lineStart) {
+                if (token.is(TokenType.RIGHT_BRACE)) return token.getStart();
+                if (token.isIdentifier("echo") && !lexer.peek().is(TokenType.LEFT_BRACKET)) {
+                    lexer.restOfLine();
+                }
+            }
+
+            lineStart = false;
+        }
+    }
+
+    private static Instruction statement(final ScriptLexer lexer, final FrameLayout layout, final ConstantPool pool,
+                                         final Set<String> imports) throws InvalidSyntaxException {
+        Token first = expect(lexer, TokenType.IDENTIFIER, "Expected statement");
+        CharSequence source = lexer.getSource();
+        int offset = lexer.lineStartOf(first);
+
+        if (first.isIdentifier("exit")) {
+            Token code = lexer.peek();
+            if (code.is(TokenType.NEWLINE) || code.is(TokenType.EOF)) {
+                java.lang.System.out.println("[WARNING] exit statement without exit code at line " + first.getLine());
+                return new ExitInstruction(source, offset, "0");
+            }
+
+            lexer.next();
+            String raw = code.getText();
+            Object value = pool.constant(raw);
+            if (!code.is(TokenType.NUMBER) || !(value instanceof LongVariable || value instanceof DoubleVariable)) {
+                throw new InvalidSyntaxException(lexer.lineOf(first), code.getLine(), code.getColumn(), "exit statement with invalid exit code");
+            }
+
+            return new ExitInstruction(source, offset, raw);
+        }
+
+        if (first.isIdentifier("echo")) {
+            if (lexer.peek().is(TokenType.LEFT_BRACKET)) {
+                lexer.next();
+                return new EchoInstruction(source, offset, null, arguments(lexer, TokenType.RIGHT_BRACKET, layout, pool));
+            }
+
+            return new EchoInstruction(source, offset, lexer.restOfLine(), new Argument[0]);
+        }
+
+        String qualifier = null;
+        Token name = first;
+        if (lexer.peek().is(TokenType.HASH)) {
+            lexer.next();
+
+            qualifier = first.getText();
+            name = expect(lexer, TokenType.IDENTIFIER, "Expected function name");
+        }
+
+        expect(lexer, TokenType.LEFT_PAREN, "Expected (");
+        Argument[] arguments = arguments(lexer, TokenType.RIGHT_PAREN, layout, pool);
+
+        if (qualifier == null) {
+            return new SelfCallInstruction(source, offset, name.getText(), arguments, false);
+        }
+        if (qualifier.equals("this")) {
+            return new SelfCallInstruction(source, offset, name.getText(), arguments, true);
+        }
+
+        int slot = (imports.contains(qualifier) ? -1 : layout.slot(qualifier));
+        if (slot != -1) {
+            return new HostCallInstruction(source, offset, qualifier, slot, name.getText(), arguments);
+        }
+
+        return new ImportCallInstruction(source, offset, qualifier, name.getText(), arguments);
+    }
+
+    private static Argument[] arguments(final ScriptLexer lexer, final TokenType close, final FrameLayout layout,
+                                        final ConstantPool pool) throws InvalidSyntaxException {
+        List<Argument> arguments = new ArrayList<>();
+        if (lexer.peek().is(close)) {
+            lexer.next();
+            return new Argument[0];
+        }
+
+        while (true) {
+            Token token = lexer.next();
+            if (!token.is(TokenType.STRING) && !token.is(TokenType.NUMBER) && !token.is(TokenType.IDENTIFIER)) {
+                throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), "Expected argument");
+            }
+            String raw = token.getText();
+            if (token.is(TokenType.IDENTIFIER)) {
+                StringBuilder path = null;
+                while (lexer.peek().is(TokenType.UNKNOWN) && lexer.peek().getText().equals(".")) {
+                    lexer.next();
+                    if (path == null) path = new StringBuilder(raw);
+
+                    path.append('.').append(expect(lexer, TokenType.IDENTIFIER, "Expected property name").getText());
+                }
+                if (path != null) raw = path.toString();
+
+                if (lexer.peek().is(TokenType.DOUBLE_COLON)) {
+                    lexer.next();
+                }
+            }
+
+            arguments.add(new Argument(raw, layout, pool));
+
+            Token separator = lexer.next();
+            if (separator.is(close)) break;
+            if (!separator.is(TokenType.COMMA)) {
+                throw new InvalidSyntaxException(lexer.lineOf(separator), separator.getLine(), separator.getColumn(),
+                        "Expected , or " + (close == TokenType.RIGHT_PAREN ? ")" : "]"));
+            }
+        }
+
+        return arguments.toArray(new Argument[0]);
+    }
+
+    private static void endOfLine(final ScriptLexer lexer) throws InvalidSyntaxException {
+        Token token = lexer.peek();
+        if (token.is(TokenType.NEWLINE)) {
+            lexer.next();
+            return;
+        }
+        if (token.is(TokenType.EOF)) return;
+
+        throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), "Expected end of line");
+    }
+
+    private static Token expect(final ScriptLexer lexer, final TokenType type, final String info) throws InvalidSyntaxException {
+        Token token = lexer.next();
+        if (!token.is(type)) {
+            throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), info);
+        }
+
+        return token;
+    }
+}
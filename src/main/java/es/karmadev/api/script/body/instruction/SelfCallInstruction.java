@@ -0,0 +1,164 @@
+package es.karmadev.api.script.body.instruction;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+import es.karmadev.api.script.exception.body.NoSuchMethodException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.variables.ExitVoidReturn;
+
+/**
+ * Represents a call to a script method, for instance
+ * <code>this#sayHello('Hello')</code>. When the call is not
+ * qualified with <code>this#</code>, the imported functions
+ * take precedence over the script methods
+ */
+public final class SelfCallInstruction extends Instruction {
+
+    private final String method;
+    private final Argument[] arguments;
+    private final boolean qualified;
+
+    private volatile CallSiteCache cache;
+
+    /**
+     * Initialize the instruction
+     *
+     * @param source the instruction source
+     * @param offset the offset of the instruction
+     *               line in the source
+     * @param method the method name
+     * @param arguments the method arguments
+     * @param qualified if the call has been qualified
+     *                  with <code>this#</code>
+     */
+    public SelfCallInstruction(final CharSequence source, final int offset, final String method, final Argument[] arguments, final boolean qualified) {
+        super(source, offset);
+        this.method = method;
+        this.arguments = arguments;
+        this.qualified = qualified;
+    }
+
+    /**
+     * Get the instruction type
+     *
+     * @return the instruction type
+     */
+    @Override
+    public InstructionType getType() {
+        return InstructionType.CALL_SELF;
+    }
+
+    /**
+     * Get the method name
+     *
+     * @return the method name
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the method arguments
+     *
+     * @return the method arguments
+     */
+    public Argument[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * Get if the call has been qualified with
+     * <code>this#</code>
+     *
+     * @return if the call is qualified
+     */
+    public boolean isQualified() {
+        return qualified;
+    }
+
+    /**
+     * Execute the instruction
+     *
+     * @param body the script body
+     * @param frame the method frame
+     * @return the value which should be returned by the
+     * method, or null if the method should continue
+     * @throws ScriptRuntimeException if there's an error
+     * during the instruction execution
+     */
+    @Override
+    public Object execute(final ScriptBody body, final Variable[] frame) throws ScriptRuntimeException {
+        Object target = getTarget(body);
+        if (target instanceof Function) {
+            Function func = (Function) target;
+
+            Object response = call(func, arguments, frame, func.getImport());
+            if (response instanceof ExitVoidReturn) {
+                return response;
+            }
+
+            return null;
+        }
+
+        Variable[] values = resolveArguments(frame);
+        if (target == null) throw new ScriptWorkException(
+                new NoSuchMethodException(method, values.length)
+        );
+
+        Object response = ((ScriptMethod) target).invoke(body, values);
+        if (response instanceof ExitVoidReturn) {
+            return response;
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the call target. The target is resolved
+     * the first time the instruction runs on a body
+     * linkage
+     *
+     * @param body the script body
+     * @return the {@link Function} or {@link ScriptMethod}
+     * to call, or null if there's no target
+     */
+    public Object getTarget(final ScriptBody body) {
+        CallSiteCache cache = CallSiteCache.find(this.cache, body.getLinkage());
+        if (cache == null) {
+            cache = link(body);
+        }
+
+        return cache.target;
+    }
+
+    /**
+     * Resolve the arguments of a call to
+     * a script method
+     *
+     * @param frame the method frame
+     * @return the argument values
+     * @throws ScriptWorkException if an argument
+     * is not defined
+     */
+    public Variable[] resolveArguments(final Variable[] frame) throws ScriptWorkException {
+        return resolve(arguments, frame, null, null);
+    }
+
+    private CallSiteCache link(final ScriptBody body) {
+        Object target = null;
+        if (!qualified) {
+            target = body.findFunction(method, arguments.length);
+        }
+        if (target == null) {
+            target = body.getMethod(method, (Object[]) arguments);
+        }
+
+        CallSiteCache cache = CallSiteCache.add(this.cache, body.getLinkage(), target);
+        this.cache = cache;
+
+        return cache;
+    }
+}
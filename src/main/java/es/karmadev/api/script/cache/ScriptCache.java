@@ -0,0 +1,283 @@
+package es.karmadev.api.script.cache;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.lang.imports.ImportRegistry;
+import es.karmadev.api.script.parser.ByteSequence;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of compiled scripts. Every script which is
+ * parsed is stored as a <code>.klsc</code> binary image
+ * in the cache directory, named after the SHA-256 hash of
+ * its source, so the next time the same source is loaded,
+ * the image is read instead of parsing the source.
+ * <p>
+ * Images are invalidated automatically: a changed source has
+ * another hash, and images written by another image format or
+ * engine version are ignored and replaced. Images are written
+ * to a temporary file and moved into place, so many processes
+ * can share the same directory
+ */
+public final class ScriptCache {
+
+    /**
+     * The version of the image format
+     */
+    public final static int FORMAT_VERSION = 3;
+
+    /**
+     * The image file extension
+     */
+    public final static String EXTENSION = ".klsc";
+
+    private final static char[] HEX = "0123456789abcdef".toCharArray();
+    private final static int HASH_CHUNK = 8192;
+    private final static byte BYTE_VIEW = 'B';
+    private final static byte DECODED = 'C';
+
+    private final Path directory;
+    private final String engine;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Initialize the cache
+     *
+     * @param directory the cache directory
+     */
+    public ScriptCache(final Path directory) {
+        this(directory, engineVersion());
+    }
+
+    /**
+     * Initialize the cache
+     *
+     * @param directory the cache directory
+     * @param engine the engine version. Images written
+     *               by other engine versions are ignored
+     */
+    public ScriptCache(final Path directory, final String engine) {
+        this.directory = directory;
+        this.engine = engine;
+    }
+
+    /**
+     * Get the cache directory
+     *
+     * @return the cache directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the engine version of
+     * the cache images
+     *
+     * @return the engine version
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the amount of scripts which have
+     * been loaded from their image
+     *
+     * @return the cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the amount of scripts which had no
+     * valid image
+     *
+     * @return the cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Hash a script source
+     *
+     * @param source the script source bytes
+     * @return the source hash
+     */
+    public static byte[] hash(final ByteBuffer source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(source.duplicate());
+
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Hash a script source. The source is hashed
+     * as UTF-8 bytes, without being copied. Byte views
+     * and decoded sources are hashed apart, as the offsets
+     * of a view are byte offsets instead of character offsets
+     *
+     * @param source the script source
+     * @return the source hash
+     */
+    public static byte[] hash(final CharSequence source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (source instanceof ByteSequence) {
+                digest.update(BYTE_VIEW);
+                digest.update(((ByteSequence) source).asBuffer());
+
+                return digest.digest();
+            }
+
+            digest.update(DECODED);
+            CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer input = CharBuffer.wrap(source);
+            ByteBuffer output = ByteBuffer.allocate(HASH_CHUNK);
+            while (true) {
+                CoderResult result = encoder.encode(input, output, true);
+                output.flip();
+                digest.update(output);
+                output.clear();
+
+                if (result.isUnderflow()) break;
+            }
+            while (encoder.flush(output).isOverflow()) {
+                output.flip();
+                digest.update(output);
+                output.clear();
+            }
+            output.flip();
+            digest.update(output);
+
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Get the image file of a script source
+     *
+     * @param hash the source hash
+     * @return the image file
+     */
+    public Path imageOf(final byte[] hash) {
+        char[] name = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            name[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            name[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+
+        return directory.resolve(new String(name) + EXTENSION);
+    }
+
+    /**
+     * Load a script from its image
+     *
+     * @param hash the source hash
+     * @param source the script source
+     * @param available the imports the script can define
+     * @return the script body, or null if the script has
+     * no valid image
+     */
+    public ScriptBody load(final byte[] hash, final CharSequence source, final ImportRegistry available) {
+        Path image = imageOf(hash);
+
+        ScriptBody body = null;
+        try {
+            byte[] bytes = Files.readAllBytes(image);
+            body = ScriptImage.read(new ByteArrayInputStream(bytes), engine, hash, source, available);
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException | RuntimeException ex) {
+            java.lang.System.out.println("[WARNING] Ignoring invalid script image " + image + " (" + ex.getMessage() + ")");
+        }
+
+        if (body == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return body;
+    }
+
+    /**
+     * Store the image of a script. Lazy methods
+     * which have not been compiled yet are stored
+     * by their source range, and stay lazy when the
+     * image is loaded
+     *
+     * @param hash the source hash
+     * @param body the script body
+     * @throws IOException if the image fails to write
+     */
+    public void store(final byte[] hash, final ScriptBody body) throws IOException {
+        Files.createDirectories(directory);
+
+        Path image = imageOf(hash);
+        Path temporary = Files.createTempFile(directory, "image", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                ScriptImage.write(body, engine, hash, output);
+            }
+
+            try {
+                Files.move(temporary, image, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Remove every image from
+     * the cache directory
+     *
+     * @throws IOException if an image fails
+     * to be removed
+     */
+    public void clear() throws IOException {
+        if (!Files.isDirectory(directory)) return;
+
+        try (DirectoryStream<Path> images = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path image : images) {
+                Files.deleteIfExists(image);
+            }
+        }
+    }
+
+    private static String engineVersion() {
+        String version = ScriptCache.class.getPackage().getImplementationVersion();
+        return (version == null ? "development" : version);
+    }
+}
@@ -0,0 +1,480 @@
+package es.karmadev.api.script.cache;
+
+import es.karmadev.api.script.body.ExecutionEngine;
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.instruction.Argument;
+import es.karmadev.api.script.body.instruction.ConstantPool;
+import es.karmadev.api.script.body.instruction.EchoInstruction;
+import es.karmadev.api.script.body.instruction.ExitInstruction;
+import es.karmadev.api.script.body.instruction.FrameLayout;
+import es.karmadev.api.script.body.instruction.HostCallInstruction;
+import es.karmadev.api.script.body.instruction.ImportCallInstruction;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.SelfCallInstruction;
+import es.karmadev.api.script.lang.imports.ImportRegistry;
+import es.karmadev.api.script.lang.variables.BooleanVariable;
+import es.karmadev.api.script.lang.variables.DoubleVariable;
+import es.karmadev.api.script.lang.variables.LongVariable;
+import es.karmadev.api.script.lang.variables.StringVariable;
+import es.karmadev.api.script.parser.ScriptLexer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary image of a compiled script. The image holds
+ * everything the parser produces from a script source, so
+ * the script can be loaded without lexing nor parsing it
+ * again:
+ * <pre>
+ * image       := header strings imports constants methods
+ * header      := MAGIC format:u2 engine:utf8 hash:u1[32] schema:u4
+ *                execution:u1 depth:u4
+ * strings     := count:u4 (length:u4 utf8)*
+ * imports     := count:u4 name:string*
+ * constants   := count:u4 (raw:string kind:u1 value)*
+ * methods     := count:u4 method*
+ * method      := name:string count:u2 parameter:string* start:u4 end:u4
+ *                compiled:u1 (count:u4 instruction*)?
+ * instruction := tag:u1 offset:u4 operands
+ * arguments   := count:u2 raw:string*
+ * </pre>
+ * Every string is an index into the string table, or -1 for
+ * null. Instructions keep their offset in the script source,
+ * so the source the image was written from must be given
+ * when the image is read. Lazy methods which have not been
+ * compiled when the image is written are stored without their
+ * instructions, and are read as lazy methods again.
+ * <p>
+ * The script constant pool is stored with its values, so literals
+ * are not parsed again when the image is read. Frame slots and
+ * member sites are linked again from the raw arguments, the same
+ * way the parser links them. The body execution engine and maximum
+ * call depth are kept as well. The tiering policy is not, since it
+ * holds the executor the methods are compiled on, so a tiered body
+ * read from an image uses the default policy
+ */
+final class ScriptImage {
+
+    /**
+     * The image magic number (KLSC)
+     */
+    final static int MAGIC = 0x4B4C5343;
+
+    private final static int TAG_CALL_IMPORT = 1;
+    private final static int TAG_CALL_SELF = 2;
+    private final static int TAG_CALL_HOST = 3;
+    private final static int TAG_ECHO = 4;
+    private final static int TAG_EXIT = 5;
+
+    private final static int CONSTANT_STRING = 1;
+    private final static int CONSTANT_LONG = 2;
+    private final static int CONSTANT_DOUBLE = 3;
+    private final static int CONSTANT_BOOLEAN = 4;
+
+    private ScriptImage() {}
+
+    /**
+     * Write the image of a script body. Lazy
+     * methods are not compiled, only their source
+     * range is written
+     *
+     * @param body the script body
+     * @param engine the engine version
+     * @param hash the hash of the script source
+     * @param output the stream to write to
+     * @throws IOException if the image fails to write
+     */
+    static void write(final ScriptBody body, final String engine, final byte[] hash,
+                      final OutputStream output) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<String, Variable> constants = new LinkedHashMap<>();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(content);
+
+        List<ScriptMethod> methods = body.getMethods();
+        out.writeInt(methods.size());
+        for (ScriptMethod method : methods) {
+            out.writeInt(string(strings, method.getName()));
+            out.writeShort(method.getParameters());
+            for (int i = 0; i < method.getParameters(); i++) {
+                out.writeInt(string(strings, method.getParameter(i)));
+            }
+            out.writeInt(method.getStart());
+            out.writeInt(method.getEnd());
+
+            out.writeBoolean(method.isCompiled());
+            if (!method.isCompiled()) continue;
+
+            Instruction[] instructions = method.compile();
+            out.writeInt(instructions.length);
+            for (Instruction instruction : instructions) {
+                writeInstruction(out, strings, constants, instruction);
+            }
+        }
+        out.flush();
+
+        ByteArrayOutputStream definitions = new ByteArrayOutputStream();
+        DataOutputStream defs = new DataOutputStream(definitions);
+
+        List<Import> imports = body.getImports();
+        defs.writeInt(imports.size());
+        for (Import imp : imports) {
+            defs.writeInt(string(strings, imp.getName()));
+        }
+
+        defs.writeInt(constants.size());
+        for (Map.Entry<String, Variable> constant : constants.entrySet()) {
+            defs.writeInt(string(strings, constant.getKey()));
+            writeConstant(defs, strings, constant.getValue());
+        }
+        defs.flush();
+
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(MAGIC);
+        header.writeShort(ScriptCache.FORMAT_VERSION);
+        writeString(header, engine);
+        header.write(hash);
+        header.writeInt(body.getVersion());
+        header.writeByte(body.getEngine().ordinal());
+        header.writeInt(body.getMaxDepth());
+
+        header.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            writeString(header, string);
+        }
+
+        definitions.writeTo(header);
+        content.writeTo(header);
+        header.flush();
+    }
+
+    /**
+     * Read the image of a script body
+     *
+     * @param input the stream to read from
+     * @param engine the current engine version
+     * @param hash the hash of the script source
+     * @param source the script source
+     * @param available the imports the script can define
+     * @return the script body, or null if the image was
+     * written by another format or engine version, from
+     * another source, or the script defines an import which
+     * is not available
+     * @throws IOException if the image fails to read
+     */
+    static ScriptBody read(final InputStream input, final String engine, final byte[] hash, final CharSequence source,
+                           final ImportRegistry available) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC || in.readUnsignedShort() != ScriptCache.FORMAT_VERSION) return null;
+        if (!engine.equals(readString(in))) return null;
+
+        byte[] imageHash = new byte[hash.length];
+        in.readFully(imageHash);
+        if (!Arrays.equals(hash, imageHash)) return null;
+
+        int version = in.readInt();
+        int execution = in.readUnsignedByte();
+        int depth = in.readInt();
+        if (execution >= ExecutionEngine.values().length || depth < 1) return null;
+
+        String[] strings = new String[count(in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+
+        List<Import> imports = new ArrayList<>();
+        int importCount = count(in);
+        for (int i = 0; i < importCount; i++) {
+            Import imp = available.get(string(strings, in.readInt()));
+            if (imp == null) return null;
+
+            imports.add(imp);
+        }
+
+        Set<String> declared = new HashSet<>();
+        for (Import imp : imports) {
+            declared.add(imp.getName());
+        }
+
+        ConstantPool pool = new ConstantPool();
+        int constantCount = count(in);
+        for (int i = 0; i < constantCount; i++) {
+            String raw = string(strings, in.readInt());
+            if (raw == null) throw new IOException("Constant " + i + " has no literal");
+
+            pool.define(raw, readConstant(in, strings));
+        }
+
+        List<ScriptMethod> methods = new ArrayList<>();
+        Lines lines = new Lines(source);
+        int methodCount = count(in);
+        for (int i = 0; i < methodCount; i++) {
+            String name = string(strings, in.readInt());
+            String[] parameters = new String[in.readUnsignedShort()];
+            for (int j = 0; j < parameters.length; j++) {
+                parameters[j] = string(strings, in.readInt());
+            }
+            int start = in.readInt();
+            int end = in.readInt();
+            if (start < 0 || end < start || end > source.length()) {
+                throw new IOException("Method " + name + " is out of the script source");
+            }
+
+            if (!in.readBoolean()) {
+                methods.add(new ScriptMethod(name, source, start, end, lines.lexer(start, end), pool, declared,
+                        parameters));
+                continue;
+            }
+
+            FrameLayout layout = new FrameLayout(parameters);
+            Instruction[] instructions = new Instruction[count(in)];
+            for (int j = 0; j < instructions.length; j++) {
+                instructions[j] = readInstruction(in, strings, source, layout, pool);
+            }
+
+            methods.add(new ScriptMethod(name, source, start, end, layout, instructions, parameters));
+        }
+
+        ScriptBody body = new ScriptBody(version, imports, methods, ExecutionEngine.values()[execution]);
+        return (depth == body.getMaxDepth() ? body : body.withMaxDepth(depth));
+    }
+
+    private static void writeInstruction(final DataOutputStream out, final Map<String, Integer> strings,
+                                         final Map<String, Variable> constants, final Instruction instruction) throws IOException {
+        Argument[] arguments;
+        switch (instruction.getType()) {
+            case CALL_IMPORT:
+                ImportCallInstruction importCall = (ImportCallInstruction) instruction;
+                out.writeByte(TAG_CALL_IMPORT);
+                out.writeInt(instruction.getOffset());
+                out.writeInt(string(strings, importCall.getImportName()));
+                out.writeInt(string(strings, importCall.getFunction()));
+                arguments = importCall.getArguments();
+                break;
+            case CALL_SELF:
+                SelfCallInstruction selfCall = (SelfCallInstruction) instruction;
+                out.writeByte(TAG_CALL_SELF);
+                out.writeInt(instruction.getOffset());
+                out.writeInt(string(strings, selfCall.getMethod()));
+                out.writeBoolean(selfCall.isQualified());
+                arguments = selfCall.getArguments();
+                break;
+            case CALL_HOST:
+                HostCallInstruction hostCall = (HostCallInstruction) instruction;
+                out.writeByte(TAG_CALL_HOST);
+                out.writeInt(instruction.getOffset());
+                out.writeInt(string(strings, hostCall.getReceiver()));
+                out.writeInt(string(strings, hostCall.getMethod()));
+                arguments = hostCall.getArguments();
+                break;
+            case ECHO:
+                EchoInstruction echo = (EchoInstruction) instruction;
+                out.writeByte(TAG_ECHO);
+                out.writeInt(instruction.getOffset());
+                out.writeInt(string(strings, echo.getText()));
+                arguments = echo.getArguments();
+                break;
+            case EXIT:
+                out.writeByte(TAG_EXIT);
+                out.writeInt(instruction.getOffset());
+                out.writeInt(string(strings, ((ExitInstruction) instruction).getCode()));
+                return;
+            default:
+                throw new IOException("Cannot write instruction of type " + instruction.getType());
+        }
+
+        out.writeShort(arguments.length);
+        for (Argument argument : arguments) {
+            out.writeInt(string(strings, argument.getRaw()));
+            if (argument.getConstant() != null) {
+                constants.putIfAbsent(argument.getRaw(), argument.getConstant());
+            }
+        }
+    }
+
+    private static void writeConstant(final DataOutputStream out, final Map<String, Integer> strings,
+                                      final Variable constant) throws IOException {
+        if (constant instanceof StringVariable) {
+            out.writeByte(CONSTANT_STRING);
+            out.writeInt(string(strings, constant.getString()));
+        } else if (constant instanceof LongVariable) {
+            out.writeByte(CONSTANT_LONG);
+            out.writeLong(constant.getLong());
+        } else if (constant instanceof DoubleVariable) {
+            out.writeByte(CONSTANT_DOUBLE);
+            out.writeDouble(constant.getDouble());
+        } else if (constant instanceof BooleanVariable) {
+            out.writeByte(CONSTANT_BOOLEAN);
+            out.writeBoolean(constant.getBoolean());
+        } else {
+            throw new IOException("Cannot write constant of type " + constant.getType());
+        }
+    }
+
+    private static Variable readConstant(final DataInput in, final String[] strings) throws IOException {
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+            case CONSTANT_STRING:
+                String value = string(strings, in.readInt());
+                if (value == null) throw new IOException("String constant has no value");
+
+                return Variable.of(value);
+            case CONSTANT_LONG:
+                return Variable.of(in.readLong());
+            case CONSTANT_DOUBLE:
+                return Variable.of(in.readDouble());
+            case CONSTANT_BOOLEAN:
+                return Variable.of(in.readBoolean());
+            default:
+                throw new IOException("Unknown constant kind " + kind);
+        }
+    }
+
+    private static Instruction readInstruction(final DataInput in, final String[] strings, final CharSequence source,
+                                               final FrameLayout layout, final ConstantPool pool) throws IOException {
+        int tag = in.readUnsignedByte();
+        int offset = in.readInt();
+        if (offset < 0 || offset > source.length()) {
+            throw new IOException("Instruction offset " + offset + " is out of the script source");
+        }
+
+        switch (tag) {
+            case TAG_CALL_IMPORT: {
+                String importName = string(strings, in.readInt());
+                String function = string(strings, in.readInt());
+                return new ImportCallInstruction(source, offset, importName, function, arguments(in, strings, layout, pool));
+            }
+            case TAG_CALL_SELF: {
+                String method = string(strings, in.readInt());
+                boolean qualified = in.readBoolean();
+                return new SelfCallInstruction(source, offset, method, arguments(in, strings, layout, pool), qualified);
+            }
+            case TAG_CALL_HOST: {
+                String receiver = string(strings, in.readInt());
+                String method = string(strings, in.readInt());
+                return new HostCallInstruction(source, offset, receiver, layout.slot(receiver), method,
+                        arguments(in, strings, layout, pool));
+            }
+            case TAG_ECHO: {
+                String text = string(strings, in.readInt());
+                return new EchoInstruction(source, offset, text, arguments(in, strings, layout, pool));
+            }
+            case TAG_EXIT:
+                return new ExitInstruction(source, offset, string(strings, in.readInt()));
+            default:
+                throw new IOException("Unknown instruction tag " + tag);
+        }
+    }
+
+    private static Argument[] arguments(final DataInput in, final String[] strings, final FrameLayout layout,
+                                        final ConstantPool pool) throws IOException {
+        Argument[] arguments = new Argument[in.readUnsignedShort()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = new Argument(string(strings, in.readInt()), layout, pool);
+        }
+
+        return arguments;
+    }
+
+    private static int count(final DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available()) throw new IOException("Invalid count " + count);
+
+        return count;
+    }
+
+    private static int string(final Map<String, Integer> strings, final String string) {
+        if (string == null) return -1;
+        return strings.computeIfAbsent(string, (s) -> strings.size());
+    }
+
+    private static String string(final String[] strings, final int index) throws IOException {
+        if (index == -1) return null;
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("String index " + index + " is out of the string table");
+        }
+
+        return strings[index];
+    }
+
+    private static void writeString(final DataOutputStream out, final String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) throw new IOException("Invalid string length " + length);
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tracks the lines of the script source, so
+     * the lexers of lazy methods start at the right
+     * line. Methods are usually stored in source order,
+     * so the source is only scanned once
+     */
+    private final static class Lines {
+
+        private final CharSequence source;
+
+        private int offset;
+        private int line = 1;
+        private int lineStart;
+
+        /**
+         * Initialize the lines
+         *
+         * @param source the script source
+         */
+        Lines(final CharSequence source) {
+            this.source = source;
+        }
+
+        /**
+         * Create the lexer of a method body
+         *
+         * @param start the method content start offset
+         * @param end the method content end offset
+         * @return the method body lexer
+         */
+        ScriptLexer lexer(final int start, final int end) {
+            if (start < offset) {
+                offset = 0;
+                line = 1;
+                lineStart = 0;
+            }
+
+            for (; offset < start; offset++) {
+                if (source.charAt(offset) == '\n') {
+                    line++;
+                    lineStart = offset + 1;
+                }
+            }
+
+            return new ScriptLexer(source, start, end, line, lineStart);
+        }
+    }
+}
@@ -19,4 +19,16 @@ public class InvalidSyntaxException extends ScriptException {
     public InvalidSyntaxException(final String fullLine, final int line, final String info) {
         super("Failed to parse " + fullLine + " at line " + line + ". " + info);
     }
+
+    /**
+     * Initialize the exception
+     *
+     * @param fullLine the full line
+     * @param line the line number
+     * @param column the column number
+     * @param info the possible fix
+     */
+    public InvalidSyntaxException(final String fullLine, final int line, final int column, final String info) {
+        super("Failed to parse " + fullLine + " at line " + line + ":" + column + ". " + info);
+    }
 }
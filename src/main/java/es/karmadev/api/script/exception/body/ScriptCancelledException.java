@@ -0,0 +1,19 @@
+package es.karmadev.api.script.exception.body;
+
+import es.karmadev.api.script.exception.ScriptRuntimeException;
+
+/**
+ * This exception is thrown when a script
+ * run is cancelled, or exceeds its time limit
+ */
+public class ScriptCancelledException extends ScriptRuntimeException {
+
+    /**
+     * Initialize the exception
+     *
+     * @param reason the exception reason
+     */
+    public ScriptCancelledException(final String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,346 @@
+package es.karmadev.api.script.exec;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Output sink which writes its output from a background
+ * thread. Scripts only queue their already formatted output
+ * records into a bounded lock-free queue, and a single writer
+ * thread drains the queue, encoding the records in batches
+ * and writing them to a channel, so scripts never wait on
+ * the channel I/O.
+ * <p>
+ * When the queue is full, the {@link BackpressurePolicy policy}
+ * of the sink decides whether scripts wait, or their records are
+ * dropped. The sink can be shared by many runs. Flushing the sink
+ * waits until the records queued before the flush have been written,
+ * so the end of a run is a durable flush point; {@link #close()} waits
+ * until every queued record has been written. The channel is never
+ * closed by the sink
+ */
+public final class AsyncOutputSink implements OutputSink, AutoCloseable {
+
+    /**
+     * The default capacity of the queue
+     */
+    public final static int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The default amount of records of which
+     * only one is queued, when sampling
+     */
+    public final static int DEFAULT_SAMPLING = 10;
+
+    private final static int BATCH_BYTES = 64 * 1024;
+    private final static long BLOCK_WAIT = 50_000;
+    private final static AtomicInteger COUNT = new AtomicInteger();
+
+    private final WritableByteChannel channel;
+    private final BackpressurePolicy policy;
+    private final int sampling;
+    private final RecordQueue queue;
+    private final Thread writer;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final AtomicInteger samples = new AtomicInteger();
+
+    private volatile long flushed;
+    private volatile boolean idle;
+    private volatile boolean closed;
+    private volatile IOException error;
+
+    /**
+     * Initialize the sink, with the default
+     * capacity, and blocking when the queue
+     * is full
+     *
+     * @param channel the channel to write to
+     */
+    public AsyncOutputSink(final WritableByteChannel channel) {
+        this(channel, DEFAULT_CAPACITY, BackpressurePolicy.BLOCK, DEFAULT_SAMPLING);
+    }
+
+    /**
+     * Initialize the sink
+     *
+     * @param channel the channel to write to
+     * @param capacity the queue capacity, rounded up
+     *                 to the next power of two
+     * @param policy what to do when the queue is full
+     */
+    public AsyncOutputSink(final WritableByteChannel channel, final int capacity, final BackpressurePolicy policy) {
+        this(channel, capacity, policy, DEFAULT_SAMPLING);
+    }
+
+    /**
+     * Initialize the sink
+     *
+     * @param channel the channel to write to
+     * @param capacity the queue capacity, rounded up
+     *                 to the next power of two
+     * @param policy what to do when the queue is full
+     * @param sampling the amount of records of which only
+     *                 one is queued, when the sink is sampling
+     */
+    public AsyncOutputSink(final WritableByteChannel channel, final int capacity, final BackpressurePolicy policy,
+                           final int sampling) {
+        this.channel = channel;
+        this.policy = policy;
+        this.sampling = Math.max(1, sampling);
+        this.queue = new RecordQueue(Math.max(2, capacity));
+
+        this.writer = new Thread(this::drain, "script-output-" + COUNT.incrementAndGet());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Create a sink which writes to the
+     * standard output
+     *
+     * @param capacity the queue capacity
+     * @param policy what to do when the queue is full
+     * @return the console sink
+     */
+    public static AsyncOutputSink console(final int capacity, final BackpressurePolicy policy) {
+        return new AsyncOutputSink(new FileOutputStream(FileDescriptor.out).getChannel(), capacity, policy);
+    }
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void write(final CharSequence text) {
+        if (text.length() == 0) return;
+        enqueue(text.toString());
+    }
+
+    /**
+     * Write text, followed by the
+     * line separator
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void writeLine(final CharSequence text) {
+        enqueue(text + java.lang.System.lineSeparator());
+    }
+
+    /**
+     * Write the queued records. This waits until
+     * every record queued before the call has been
+     * written to the channel, or the sink has failed
+     * or been closed
+     */
+    @Override
+    public void flush() {
+        long target = queue.tail();
+
+        boolean interrupted = false;
+        while (flushed < target && error == null && writer.isAlive()) {
+            wake();
+            LockSupport.parkNanos(this, BLOCK_WAIT);
+            if (Thread.interrupted()) interrupted = true;
+        }
+
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Close the sink. The records written after
+     * the sink has been closed are dropped, and this
+     * waits until the queued records have been written
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Get the backpressure policy
+     * of the sink
+     *
+     * @return the sink policy
+     */
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the capacity of the queue
+     *
+     * @return the queue capacity
+     */
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * Get the amount of records which
+     * have been queued
+     *
+     * @return the queued records
+     */
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    /**
+     * Get the amount of records which have
+     * been dropped, either by the policy of the
+     * sink, or because the sink is closed or has
+     * failed
+     *
+     * @return the dropped records
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the amount of records which
+     * have been written to the channel
+     *
+     * @return the written records
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Get the amount of records waiting
+     * to be written
+     *
+     * @return the pending records
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * Get the error which stopped the
+     * sink from writing to its channel
+     *
+     * @return the channel error, or null if
+     * the sink has not failed
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    private void enqueue(final String record) {
+        if (closed || error != null) {
+            dropped.increment();
+            return;
+        }
+
+        if (policy == BackpressurePolicy.SAMPLE && queue.size() > queue.capacity() / 2 &&
+                samples.getAndIncrement() % sampling != 0) {
+            dropped.increment();
+            return;
+        }
+
+        while (!queue.offer(record)) {
+            if (policy != BackpressurePolicy.BLOCK || closed || error != null) {
+                dropped.increment();
+                return;
+            }
+
+            wake();
+            LockSupport.parkNanos(this, BLOCK_WAIT);
+        }
+
+        queued.increment();
+        if (idle) wake();
+    }
+
+    private void wake() {
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+
+        while (true) {
+            String record = queue.poll();
+            if (record == null) {
+                write(batch);
+                flushed = queue.head();
+                if (closed && queue.head() == queue.tail()) return;
+
+                idle = true;
+                if (queue.head() == queue.tail() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+
+            if (error != null) {
+                dropped.increment();
+                continue;
+            }
+
+            encoder.reset();
+            CharBuffer input = CharBuffer.wrap(record);
+            while (true) {
+                boolean overflow = encoder.encode(input, batch, true).isOverflow() ||
+                        encoder.flush(batch).isOverflow();
+                if (!overflow) break;
+
+                write(batch);
+                if (error != null) break;
+            }
+
+            written.increment();
+        }
+    }
+
+    private void write(final ByteBuffer batch) {
+        if (batch.position() == 0) return;
+
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+        } catch (IOException ex) {
+            error = ex;
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package es.karmadev.api.script.exec;
+
+/**
+ * Represents what an {@link AsyncOutputSink} does
+ * with the output records written while its queue
+ * cannot take them
+ */
+public enum BackpressurePolicy {
+    /**
+     * The script waits until the queue
+     * has room for the record
+     */
+    BLOCK,
+    /**
+     * The record is dropped if the
+     * queue is full
+     */
+    DROP,
+    /**
+     * Once the queue is half full, only one of
+     * every sampled records is queued, and the rest
+     * are dropped. The record is dropped if the queue
+     * is full
+     */
+    SAMPLE
+}
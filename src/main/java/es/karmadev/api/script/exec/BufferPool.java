@@ -0,0 +1,53 @@
+package es.karmadev.api.script.exec;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of the char buffers used by the output
+ * sinks. A sink takes a buffer when it's first
+ * written, and returns it when it's flushed, so
+ * runs don't allocate their own buffers
+ */
+final class BufferPool {
+
+    /**
+     * The size of the pooled buffers
+     */
+    final static int BUFFER_SIZE = 8192;
+
+    private final static int MAX_POOLED = 64;
+
+    private final static Queue<char[]> pool = new ConcurrentLinkedQueue<>();
+    private final static AtomicInteger pooled = new AtomicInteger();
+
+    private BufferPool() {}
+
+    /**
+     * Take a buffer from the pool
+     *
+     * @return the buffer
+     */
+    static char[] acquire() {
+        char[] buffer = pool.poll();
+        if (buffer == null) return new char[BUFFER_SIZE];
+
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool
+     *
+     * @param buffer the buffer
+     */
+    static void release(final char[] buffer) {
+        if (pooled.incrementAndGet() > MAX_POOLED) {
+            pooled.decrementAndGet();
+            return;
+        }
+
+        pool.offer(buffer);
+    }
+}
@@ -0,0 +1,64 @@
+package es.karmadev.api.script.exec;
+
+/**
+ * Output sink which captures the output in
+ * memory, so it can be read once the run is done.
+ * The sink can be shared by many runs
+ */
+public final class BufferSink implements OutputSink {
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Initialize the sink
+     */
+    BufferSink() {}
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    @Override
+    public synchronized void write(final CharSequence text) {
+        buffer.append(text);
+    }
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    @Override
+    public void flush() {}
+
+    /**
+     * Get the captured output
+     *
+     * @return the captured text
+     */
+    public synchronized String getText() {
+        return buffer.toString();
+    }
+
+    /**
+     * Get the length of the
+     * captured output
+     *
+     * @return the captured text length
+     */
+    public synchronized int length() {
+        return buffer.length();
+    }
+
+    /**
+     * Discard the captured output
+     */
+    public synchronized void reset() {
+        buffer.setLength(0);
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
@@ -0,0 +1,59 @@
+package es.karmadev.api.script.exec;
+
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output sink which encodes the output as
+ * UTF-8 into a byte buffer. The output is encoded
+ * directly into the buffer, so the sink has nothing
+ * to flush
+ */
+final class ByteBufferSink implements OutputSink {
+
+    private final ByteBuffer target;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Initialize the sink
+     *
+     * @param target the buffer to write to
+     */
+    ByteBufferSink(final ByteBuffer target) {
+        this.target = target;
+    }
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     * @throws ScriptWorkException if the buffer is full
+     */
+    @Override
+    public synchronized void write(final CharSequence text) throws ScriptWorkException {
+        encoder.reset();
+
+        CharBuffer input = CharBuffer.wrap(text);
+        CoderResult result = encoder.encode(input, target, true);
+        if (!result.isOverflow()) result = encoder.flush(target);
+
+        if (result.isOverflow()) {
+            throw new ScriptWorkException("Cannot write script output because the output buffer is full");
+        }
+    }
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    @Override
+    public void flush() {}
+}
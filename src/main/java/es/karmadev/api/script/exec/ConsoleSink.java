@@ -0,0 +1,42 @@
+package es.karmadev.api.script.exec;
+
+/**
+ * Output sink which writes to the
+ * standard output
+ */
+final class ConsoleSink implements OutputSink {
+
+    final static ConsoleSink INSTANCE = new ConsoleSink();
+
+    private ConsoleSink() {}
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void write(final CharSequence text) {
+        java.lang.System.out.print(text);
+    }
+
+    /**
+     * Write text, followed by the
+     * line separator
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void writeLine(final CharSequence text) {
+        java.lang.System.out.println(text);
+    }
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    @Override
+    public void flush() {
+        java.lang.System.out.flush();
+    }
+}
@@ -0,0 +1,36 @@
+package es.karmadev.api.script.exec;
+
+/**
+ * Output sink which discards
+ * all the output
+ */
+final class DiscardSink implements OutputSink {
+
+    final static DiscardSink INSTANCE = new DiscardSink();
+
+    private DiscardSink() {}
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void write(final CharSequence text) {}
+
+    /**
+     * Write text, followed by the
+     * line separator
+     *
+     * @param text the text to write
+     */
+    @Override
+    public void writeLine(final CharSequence text) {}
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    @Override
+    public void flush() {}
+}
@@ -0,0 +1,156 @@
+package es.karmadev.api.script.exec;
+
+import es.karmadev.api.script.exception.body.ScriptCancelledException;
+
+/**
+ * Represents the context of a script run. The
+ * context is bound to the thread which runs the script,
+ * and is checked by the interpreter before every statement,
+ * so a run can be cancelled cooperatively without interrupting
+ * its thread. The context also holds the sink the run writes
+ * its output to
+ */
+public final class ExecutionContext {
+
+    private final static ThreadLocal<ExecutionContext> CURRENT = new ThreadLocal<>();
+
+    private final OutputSink output;
+    private volatile String cancelled;
+
+    /**
+     * Initialize the context of a run which
+     * writes its output to the specified sink
+     *
+     * @param output the run output sink
+     */
+    public ExecutionContext(final OutputSink output) {
+        if (output == null) throw new IllegalArgumentException("Cannot create a context without an output sink");
+        this.output = output;
+    }
+
+    /**
+     * Get the context bound to the
+     * current thread
+     *
+     * @return the current context, or null if the
+     * current thread is not running a script through
+     * a {@link ScriptExecutor} or an open {@link Scope}
+     */
+    public static ExecutionContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a context to the current thread
+     *
+     * @param context the context, or null to
+     *                unbind the current context
+     */
+    static void bind(final ExecutionContext context) {
+        if (context == null) {
+            CURRENT.remove();
+            return;
+        }
+
+        CURRENT.set(context);
+    }
+
+    /**
+     * Bind the context to the current thread until the
+     * returned scope is closed, so the scripts run by the
+     * thread in the meantime write to the context sink and
+     * can be cancelled through the context. Closing the scope
+     * binds the previous context again, and flushes the sink
+     *
+     * @return the context scope
+     */
+    public Scope open() {
+        Scope scope = new Scope(this, CURRENT.get());
+        bind(this);
+
+        return scope;
+    }
+
+    /**
+     * Get the sink the run writes
+     * its output to
+     *
+     * @return the run output sink
+     */
+    public OutputSink getOutput() {
+        return output;
+    }
+
+    /**
+     * Cancel the run. The run stops at
+     * its next statement
+     */
+    public void cancel() {
+        cancel("Script run cancelled");
+    }
+
+    /**
+     * Cancel the run with the specified reason.
+     * Only the first reason is kept
+     *
+     * @param reason the cancel reason
+     */
+    void cancel(final String reason) {
+        if (cancelled == null) {
+            cancelled = reason;
+        }
+    }
+
+    /**
+     * Get if the run has been cancelled
+     *
+     * @return if the run is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled != null;
+    }
+
+    /**
+     * Check if the run has been cancelled, and
+     * stop it if so
+     *
+     * @throws ScriptCancelledException if the run
+     * has been cancelled
+     */
+    public void checkpoint() throws ScriptCancelledException {
+        String reason = cancelled;
+        if (reason != null) throw new ScriptCancelledException(reason);
+    }
+
+    /**
+     * Represents the time a context is bound
+     * to a thread
+     */
+    public final static class Scope implements AutoCloseable {
+
+        private final ExecutionContext context;
+        private final ExecutionContext previous;
+
+        /**
+         * Initialize the scope
+         *
+         * @param context the bound context
+         * @param previous the context which was bound
+         *                 before, or null
+         */
+        Scope(final ExecutionContext context, final ExecutionContext previous) {
+            this.context = context;
+            this.previous = previous;
+        }
+
+        /**
+         * Bind the previous context again, and
+         * flush the context sink
+         */
+        @Override
+        public void close() {
+            bind(previous);
+            context.output.flush();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package es.karmadev.api.script.exec;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Represents the destination of the output of a
+ * script run. Everything a script prints, either through
+ * the <code>system</code> import functions or through echo
+ * and exit statements, is written to the sink of its run.
+ * <p>
+ * Sinks may buffer their output, which is written at the
+ * explicit flush points of the run: exit statements, and the
+ * end of the run. The sink of a run is chosen when it's
+ * submitted to a {@link ScriptExecutor}, or when the script is
+ * initialized through {@link es.karmadev.api.script.body.ScriptBody#init(OutputSink)}.
+ * Other runs write to the {@link #console() console}
+ */
+public interface OutputSink {
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    void write(final CharSequence text);
+
+    /**
+     * Write text, followed by the
+     * line separator
+     *
+     * @param text the text to write
+     */
+    default void writeLine(final CharSequence text) {
+        write(text);
+        write(java.lang.System.lineSeparator());
+    }
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    void flush();
+
+    /**
+     * Get the sink of the run of the current
+     * thread
+     *
+     * @return the current sink, or the console if
+     * the current thread has no bound
+     * {@link ExecutionContext}
+     */
+    static OutputSink current() {
+        ExecutionContext context = ExecutionContext.current();
+        return (context == null ? ConsoleSink.INSTANCE : context.getOutput());
+    }
+
+    /**
+     * Get the sink which writes to
+     * the standard output
+     *
+     * @return the console sink
+     */
+    static OutputSink console() {
+        return ConsoleSink.INSTANCE;
+    }
+
+    /**
+     * Create a sink which captures the
+     * output in memory
+     *
+     * @return the buffer sink
+     */
+    static BufferSink buffer() {
+        return new BufferSink();
+    }
+
+    /**
+     * Create a sink which writes to a writer. The
+     * output is buffered in a pooled buffer, and written
+     * to the writer when the buffer is full, or flushed
+     *
+     * @param writer the writer
+     * @return the writer sink
+     */
+    static OutputSink writer(final Writer writer) {
+        return new WriterSink(writer);
+    }
+
+    /**
+     * Create a sink which encodes the output
+     * as UTF-8 into a byte buffer
+     *
+     * @param buffer the byte buffer
+     * @return the byte buffer sink
+     */
+    static OutputSink bytes(final ByteBuffer buffer) {
+        return new ByteBufferSink(buffer);
+    }
+
+    /**
+     * Create a sink which writes to a channel from
+     * a background thread. The sink must be closed
+     * once it's no longer used
+     *
+     * @param channel the channel
+     * @param capacity the amount of records the sink
+     *                 can queue
+     * @param policy what to do when the queue is full
+     * @return the asynchronous sink
+     */
+    static AsyncOutputSink async(final WritableByteChannel channel, final int capacity, final BackpressurePolicy policy) {
+        return new AsyncOutputSink(channel, capacity, policy);
+    }
+
+    /**
+     * Get the sink which discards
+     * all the output
+     *
+     * @return the discard sink
+     */
+    static OutputSink discard() {
+        return DiscardSink.INSTANCE;
+    }
+}
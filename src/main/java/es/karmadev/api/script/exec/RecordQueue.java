@@ -0,0 +1,130 @@
+package es.karmadev.api.script.exec;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue of output records, for
+ * many producers and a single consumer. Every slot of
+ * the ring has a sequence number, which tells producers
+ * when the slot is free, and the consumer when the slot
+ * has been published, so no locks are taken
+ */
+final class RecordQueue {
+
+    private final int mask;
+    private final AtomicReferenceArray<String> records;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile long head;
+
+    /**
+     * Initialize the queue
+     *
+     * @param capacity the minimum queue capacity, rounded
+     *                 up to the next power of two
+     */
+    RecordQueue(final int capacity) {
+        int size = 1;
+        while (size < capacity && size < (1 << 30)) size <<= 1;
+
+        this.mask = size - 1;
+        this.records = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Get the queue capacity
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get the amount of queued records. The
+     * amount is only an approximation while the
+     * queue is being used
+     *
+     * @return the queued records
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Get the position of the next
+     * record which will be queued
+     *
+     * @return the queue tail
+     */
+    long tail() {
+        return tail.get();
+    }
+
+    /**
+     * Get the position of the next
+     * record which will be taken
+     *
+     * @return the queue head
+     */
+    long head() {
+        return head;
+    }
+
+    /**
+     * Queue a record
+     *
+     * @param record the record
+     * @return if the record has been queued, or
+     * false if the queue is full
+     */
+    boolean offer(final String record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    records.lazySet(index, record);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the next record. Only the
+     * consumer thread can take records
+     *
+     * @return the record, or null if there's
+     * no published record
+     */
+    String poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) return null;
+
+        String record = records.get(index);
+        records.lazySet(index, null);
+        sequences.lazySet(index, position + mask + 1);
+        head = position + 1;
+
+        return record;
+    }
+}
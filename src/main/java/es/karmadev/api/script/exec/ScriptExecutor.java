@@ -0,0 +1,208 @@
+package es.karmadev.api.script.exec;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.NoSuchMethodException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Script executor. The script executor runs
+ * scripts on a backing executor service and returns
+ * a {@link ScriptRun} for each of them, which can be
+ * waited for, limited in time or cancelled.
+ * <p>
+ * Cancellation is cooperative: the interpreter checks the
+ * run {@link ExecutionContext} before every statement, so a
+ * cancelled or expired script stops at its next statement. A
+ * script blocked inside an import function only stops once the
+ * function returns
+ */
+public final class ScriptExecutor implements AutoCloseable {
+
+    private final static ScheduledThreadPoolExecutor TIMER;
+
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, factory("script-timer"));
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final ExecutorService service;
+    private final boolean owned;
+
+    /**
+     * Initialize the script executor. The
+     * executor service is not shut down when the
+     * script executor is closed
+     *
+     * @param service the executor service to
+     *                run the scripts on
+     */
+    public ScriptExecutor(final ExecutorService service) {
+        this(service, false);
+    }
+
+    private ScriptExecutor(final ExecutorService service, final boolean owned) {
+        this.service = service;
+        this.owned = owned;
+    }
+
+    /**
+     * Create a script executor backed by a
+     * fixed pool of platform threads
+     *
+     * @param threads the amount of threads
+     * @return the script executor
+     */
+    public static ScriptExecutor pooled(final int threads) {
+        return new ScriptExecutor(Executors.newFixedThreadPool(threads, factory("script-worker")), true);
+    }
+
+    /**
+     * Create a script executor which runs every
+     * script on its own virtual thread. If virtual threads
+     * are not available in the running JVM, the executor
+     * is backed by a cached pool of platform threads
+     *
+     * @return the script executor
+     */
+    public static ScriptExecutor virtual() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return new ScriptExecutor((ExecutorService) factory.invoke(null), true);
+        } catch (ReflectiveOperationException ex) {
+            return new ScriptExecutor(Executors.newCachedThreadPool(factory("script-worker")), true);
+        }
+    }
+
+    /**
+     * Get if virtual threads are available
+     * in the running JVM
+     *
+     * @return if virtual threads are available
+     */
+    public static boolean isVirtualAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (java.lang.NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Run the script main method
+     *
+     * @param body the script body
+     * @return the script run
+     * @throws NoSuchMethodException if the script
+     * has no main method
+     */
+    public ScriptRun submit(final ScriptBody body) throws NoSuchMethodException {
+        return submit(body, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Run the script main method
+     *
+     * @param body the script body
+     * @param timeout the run time limit, or zero
+     *                for no time limit
+     * @param unit the time limit unit
+     * @return the script run
+     * @throws NoSuchMethodException if the script
+     * has no main method
+     */
+    public ScriptRun submit(final ScriptBody body, final long timeout, final TimeUnit unit) throws NoSuchMethodException {
+        return submit(body, "main", timeout, unit);
+    }
+
+    /**
+     * Run a script method
+     *
+     * @param body the script body
+     * @param method the method name
+     * @param timeout the run time limit, or zero
+     *                for no time limit
+     * @param unit the time limit unit
+     * @param parameters the method parameters
+     * @return the script run
+     * @throws NoSuchMethodException if the script
+     * has no matching method
+     */
+    public ScriptRun submit(final ScriptBody body, final String method, final long timeout, final TimeUnit unit,
+                            final Variable... parameters) throws NoSuchMethodException {
+        return submit(body, method, timeout, unit, OutputSink.console(), parameters);
+    }
+
+    /**
+     * Run the script main method, writing
+     * its output to the specified sink
+     *
+     * @param body the script body
+     * @param output the run output sink
+     * @return the script run
+     * @throws NoSuchMethodException if the script
+     * has no main method
+     */
+    public ScriptRun submit(final ScriptBody body, final OutputSink output) throws NoSuchMethodException {
+        return submit(body, "main", 0, TimeUnit.NANOSECONDS, output);
+    }
+
+    /**
+     * Run a script method, writing its output
+     * to the specified sink. The sink is flushed
+     * once the run is done
+     *
+     * @param body the script body
+     * @param method the method name
+     * @param timeout the run time limit, or zero
+     *                for no time limit
+     * @param unit the time limit unit
+     * @param output the run output sink
+     * @param parameters the method parameters
+     * @return the script run
+     * @throws NoSuchMethodException if the script
+     * has no matching method
+     */
+    public ScriptRun submit(final ScriptBody body, final String method, final long timeout, final TimeUnit unit,
+                            final OutputSink output, final Variable... parameters) throws NoSuchMethodException {
+        ScriptMethod target = body.getMethod(method, (Object[]) parameters);
+        if (target == null) throw new NoSuchMethodException(method, parameters.length);
+
+        ScriptRun run = new ScriptRun(body, target, parameters.clone(), new ExecutionContext(output),
+                TIMER, unit.toNanos(Math.max(0, timeout)));
+        service.execute(run);
+
+        return run;
+    }
+
+    /**
+     * Close the executor. If the executor owns
+     * its executor service, the service is shut down,
+     * and the already submitted runs complete
+     */
+    @Override
+    public void close() {
+        if (owned) {
+            service.shutdown();
+        }
+    }
+
+    private static ThreadFactory factory(final String name) {
+        AtomicInteger count = new AtomicInteger();
+        return (task) -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+}
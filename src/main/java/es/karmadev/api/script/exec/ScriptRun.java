@@ -0,0 +1,99 @@
+package es.karmadev.api.script.exec;
+
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.Variable;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a script run submitted to a
+ * {@link ScriptExecutor}. Cancelling the run cancels
+ * its {@link ExecutionContext}, so the script stops at its
+ * next statement. If the run has a time limit, the limit
+ * starts when the run starts, and the run fails with a
+ * {@link es.karmadev.api.script.exception.body.ScriptCancelledException}
+ * once it's exceeded
+ */
+public final class ScriptRun extends FutureTask<Object> {
+
+    private final ExecutionContext context;
+    private final ScheduledExecutorService timer;
+    private final long timeout;
+
+    private volatile ScheduledFuture<?> limit;
+
+    /**
+     * Initialize the run
+     *
+     * @param body the script body
+     * @param method the method to run
+     * @param parameters the method parameters
+     * @param context the run context
+     * @param timer the timer which expires the run
+     * @param timeout the run time limit in nanoseconds, or
+     *                zero if the run has no time limit
+     */
+    ScriptRun(final ScriptBody body, final ScriptMethod method, final Variable[] parameters,
+              final ExecutionContext context, final ScheduledExecutorService timer, final long timeout) {
+        super(() -> {
+            try (ExecutionContext.Scope ignored = context.open()) {
+                return method.invoke(body, parameters);
+            }
+        });
+
+        this.context = context;
+        this.timer = timer;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the run context
+     *
+     * @return the run context
+     */
+    public ExecutionContext getContext() {
+        return context;
+    }
+
+    /**
+     * Run the script
+     */
+    @Override
+    public void run() {
+        if (timeout > 0 && !isDone()) {
+            limit = timer.schedule(() -> context.cancel("Script run timed out after " +
+                    TimeUnit.NANOSECONDS.toMillis(timeout) + "ms"), timeout, TimeUnit.NANOSECONDS);
+        }
+
+        super.run();
+    }
+
+    /**
+     * Cancel the run
+     *
+     * @param mayInterruptIfRunning if the thread running the
+     *                              script should be interrupted
+     * @return if the run has been cancelled
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        context.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * Stop the run time limit once
+     * the run is done
+     */
+    @Override
+    protected void done() {
+        ScheduledFuture<?> limit = this.limit;
+        if (limit != null) {
+            limit.cancel(false);
+        }
+    }
+}
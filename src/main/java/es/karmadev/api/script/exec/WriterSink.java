@@ -0,0 +1,87 @@
+package es.karmadev.api.script.exec;
+
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Output sink which writes to a writer. The
+ * output is collected in a pooled buffer, which is
+ * written when it's full, and returned to the pool
+ * when the sink is flushed
+ */
+final class WriterSink implements OutputSink {
+
+    private final Writer writer;
+
+    private char[] buffer;
+    private int size;
+
+    /**
+     * Initialize the sink
+     *
+     * @param writer the writer
+     */
+    WriterSink(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write text
+     *
+     * @param text the text to write
+     */
+    @Override
+    public synchronized void write(final CharSequence text) {
+        if (buffer == null) buffer = BufferPool.acquire();
+
+        int length = text.length();
+        int position = 0;
+        while (position < length) {
+            if (size == buffer.length) drain();
+
+            int count = Math.min(length - position, buffer.length - size);
+            if (text instanceof String) {
+                ((String) text).getChars(position, position + count, buffer, size);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    buffer[size + i] = text.charAt(position + i);
+                }
+            }
+
+            size += count;
+            position += count;
+        }
+    }
+
+    /**
+     * Write all the buffered output
+     * to its destination
+     */
+    @Override
+    public synchronized void flush() {
+        if (buffer == null) return;
+
+        drain();
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new ScriptWorkException(ex);
+        } finally {
+            BufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void drain() {
+        if (size == 0) return;
+        try {
+            writer.write(buffer, 0, size);
+        } catch (IOException ex) {
+            throw new ScriptWorkException(ex);
+        } finally {
+            size = 0;
+        }
+    }
+}
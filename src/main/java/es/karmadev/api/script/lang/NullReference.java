@@ -2,9 +2,11 @@ package es.karmadev.api.script.lang;
 
 import es.karmadev.api.script.body.Variable;
 import es.karmadev.api.script.exception.VariableDefinitionException;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
 
 /**
- * Represents a null variable
+ * Represents a null variable. The null
+ * reference is shared, so it cannot be assigned
  */
 public class NullReference extends Variable {
 
@@ -22,6 +24,16 @@ public class NullReference extends Variable {
         super("null", true, FLAG_PRIVATE & FLAG_READONLY & FLAG_FINAL, Object.class);
     }
 
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to null reference");
+    }
+
     public static NullReference get() {
         return instance;
     }
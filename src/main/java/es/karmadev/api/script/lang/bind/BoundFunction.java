@@ -0,0 +1,213 @@
+package es.karmadev.api.script.lang.bind;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.variables.VoidReturn;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Represents a function bound to a java
+ * method. The method handle is linked, and its
+ * parameters converted, when the function is bound,
+ * so calls only invoke the handle
+ */
+final class BoundFunction implements Function {
+
+    private final Import imp;
+    private final String name;
+    private final int parameters;
+    private final boolean varargs;
+
+    /**
+     * The handle with the exact arity of the
+     * function, which takes a variable per parameter
+     * (and the rest array if the function takes varargs)
+     */
+    private final MethodHandle invoker;
+
+    /**
+     * The handle which takes all its parameters
+     * from an object array
+     */
+    private final MethodHandle spreader;
+
+    /**
+     * Initialize the function
+     *
+     * @param imp the function import
+     * @param name the function name
+     * @param parameters the amount of required parameters
+     * @param varargs if the function accepts more parameters
+     * @param invoker the function invoker, which returns an object
+     */
+    BoundFunction(final Import imp, final String name, final int parameters, final boolean varargs,
+                  final MethodHandle invoker) {
+        this.imp = imp;
+        this.name = name;
+        this.parameters = parameters;
+        this.varargs = varargs;
+        this.invoker = invoker;
+        this.spreader = invoker.asSpreader(Object[].class, invoker.type().parameterCount());
+    }
+
+    /**
+     * Get the import the function
+     * pertains to
+     *
+     * @return the function import
+     */
+    @Override
+    public Import getImport() {
+        return imp;
+    }
+
+    /**
+     * Get the function name
+     *
+     * @return the function name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the amount of parameters this
+     * function allows
+     *
+     * @return the amount of parameters the
+     * function allows
+     */
+    @Override
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Get if the parameters value of
+     * this function refers to the minimum
+     * required parameters, and not the
+     * exact amount
+     *
+     * @return if the function uses min parameters
+     * instead of exact parameters
+     */
+    @Override
+    public boolean isMinParameters() {
+        return varargs;
+    }
+
+    /**
+     * Execute a method
+     *
+     * @param parameters the method parameters
+     * @return the method result
+     */
+    @Override
+    public Object execute(final Variable... parameters) {
+        if (parameters.length < this.parameters || (!varargs && parameters.length != this.parameters)) {
+            throw new ScriptWorkException("Function " + imp.getName() + "#" + name + " does not take " +
+                    parameters.length + " parameters");
+        }
+
+        Object[] arguments;
+        if (varargs) {
+            arguments = new Object[this.parameters + 1];
+            java.lang.System.arraycopy(parameters, 0, arguments, 0, this.parameters);
+
+            Variable[] rest = new Variable[parameters.length - this.parameters];
+            java.lang.System.arraycopy(parameters, this.parameters, rest, 0, rest.length);
+            arguments[this.parameters] = rest;
+        } else {
+            arguments = parameters;
+        }
+
+        try {
+            return result((Object) spreader.invokeExact(arguments));
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    /**
+     * Execute a method without
+     * parameters
+     *
+     * @return the method result
+     */
+    @Override
+    public Object execute0() {
+        if (varargs || parameters != 0) return execute(NO_PARAMETERS);
+        try {
+            return result((Object) invoker.invokeExact());
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    /**
+     * Execute a method with a
+     * single parameter
+     *
+     * @param first the first parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute1(final Variable first) {
+        if (varargs || parameters != 1) return execute(first);
+        try {
+            return result((Object) invoker.invokeExact(first));
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    /**
+     * Execute a method with two
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute2(final Variable first, final Variable second) {
+        if (varargs || parameters != 2) return execute(first, second);
+        try {
+            return result((Object) invoker.invokeExact(first, second));
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    /**
+     * Execute a method with three
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @param third the third parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute3(final Variable first, final Variable second, final Variable third) {
+        if (varargs || parameters != 3) return execute(first, second, third);
+        try {
+            return result((Object) invoker.invokeExact(first, second, third));
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    private static Object result(final Object result) {
+        return (result == null ? VoidReturn.get() : result);
+    }
+
+    @Override
+    public String toString() {
+        return imp.getName() + "#" + name + "(" + parameters + (varargs ? "+" : "") + ")";
+    }
+}
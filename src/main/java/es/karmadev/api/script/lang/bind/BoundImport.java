@@ -0,0 +1,69 @@
+package es.karmadev.api.script.lang.bind;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.body.func.FunctionIndex;
+
+import java.util.List;
+
+/**
+ * Represents an import bound to a
+ * {@link ScriptImport} class
+ */
+final class BoundImport extends Import {
+
+    private final Function[] functions;
+    private final FunctionIndex index;
+
+    /**
+     * Initialize the import
+     *
+     * @param name the import name
+     * @param bindings the import function bindings
+     */
+    BoundImport(final String name, final List<ImportBinder.Binding> bindings) {
+        super(name);
+
+        Function[] functions = new Function[bindings.size()];
+        for (int i = 0; i < functions.length; i++) {
+            ImportBinder.Binding binding = bindings.get(i);
+            functions[i] = new BoundFunction(this, binding.name, binding.parameters, binding.varargs, binding.invoker);
+        }
+
+        this.functions = functions;
+        this.index = new FunctionIndex(functions);
+    }
+
+    /**
+     * Get all the import functions
+     *
+     * @return the import functions
+     */
+    @Override
+    public Function[] getFunctions() {
+        return functions.clone();
+    }
+
+    /**
+     * Get a function
+     *
+     * @param name the function name
+     * @return the functions
+     */
+    @Override
+    public Function[] getFunctions(final String name) {
+        return index.getAll(name);
+    }
+
+    /**
+     * Get a function
+     *
+     * @param name       the function name
+     * @param parameters the function parameters amount
+     * @return the function
+     */
+    @Override
+    public Function getFunction(final String name, final int parameters) {
+        return index.get(name, parameters);
+    }
+}
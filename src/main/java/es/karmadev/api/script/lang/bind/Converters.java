@@ -0,0 +1,215 @@
+package es.karmadev.api.script.lang.bind;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.lang.NullReference;
+import es.karmadev.api.script.lang.variables.ObjectVariable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variable converters. A converter is a method
+ * handle which reads a variable as a java type, and
+ * a wrapper is a method handle which turns a java type
+ * into a variable, so the conversion of each parameter and
+ * return value is chosen once, when the method is linked
+ */
+final class Converters {
+
+    private final static Map<Class<?>, MethodHandle> converters = new HashMap<>();
+    private final static Map<Class<?>, MethodHandle> wrappers = new HashMap<>();
+    private final static MethodHandle object;
+    private final static MethodHandle wrap;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            converters.put(Variable.class, MethodHandles.identity(Variable.class));
+            converters.put(long.class, converter(lookup, "toLong", long.class));
+            converters.put(int.class, converter(lookup, "toInt", int.class));
+            converters.put(short.class, converter(lookup, "toShort", short.class));
+            converters.put(byte.class, converter(lookup, "toByte", byte.class));
+            converters.put(double.class, converter(lookup, "toDouble", double.class));
+            converters.put(float.class, converter(lookup, "toFloat", float.class));
+            converters.put(boolean.class, converter(lookup, "toBoolean", boolean.class));
+            converters.put(char.class, converter(lookup, "toChar", char.class));
+            converters.put(String.class, converter(lookup, "toString", String.class));
+
+            object = lookup.findStatic(Converters.class, "toObject",
+                    MethodType.methodType(Object.class, Variable.class, Class.class));
+
+            MethodHandle ofLong = lookup.findStatic(Variable.class, "of", MethodType.methodType(Variable.class, long.class));
+            MethodHandle ofDouble = lookup.findStatic(Variable.class, "of", MethodType.methodType(Variable.class, double.class));
+            wrappers.put(long.class, ofLong);
+            wrappers.put(int.class, ofLong);
+            wrappers.put(short.class, ofLong);
+            wrappers.put(byte.class, ofLong);
+            wrappers.put(double.class, ofDouble);
+            wrappers.put(float.class, ofDouble);
+            wrappers.put(boolean.class, lookup.findStatic(Variable.class, "of", MethodType.methodType(Variable.class, boolean.class)));
+            wrappers.put(String.class, lookup.findStatic(Variable.class, "of", MethodType.methodType(Variable.class, String.class)));
+
+            wrap = lookup.findStatic(Converters.class, "wrap", MethodType.methodType(Variable.class, Object.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private Converters() {}
+
+    /**
+     * Get the converter of a type. The
+     * converter takes a variable and returns
+     * the specified type
+     *
+     * @param type the type
+     * @return the type converter
+     */
+    static MethodHandle of(final Class<?> type) {
+        Class<?> primitive = unbox(type);
+
+        MethodHandle converter = converters.get(primitive);
+        if (converter == null) {
+            converter = MethodHandles.insertArguments(object, 1, type);
+        }
+
+        return converter.asType(MethodType.methodType(type, Variable.class));
+    }
+
+    /**
+     * Get the wrapper of a type. The wrapper
+     * takes the specified type and returns a
+     * variable
+     *
+     * @param type the type
+     * @return the type wrapper
+     */
+    static MethodHandle wrapper(final Class<?> type) {
+        if (Variable.class.isAssignableFrom(type)) {
+            return MethodHandles.identity(type).asType(MethodType.methodType(Variable.class, type));
+        }
+
+        MethodHandle wrapper = wrappers.get(type);
+        if (wrapper == null) wrapper = wrap;
+
+        return wrapper.asType(MethodType.methodType(Variable.class, type));
+    }
+
+    /**
+     * Get the exception to throw when a linked
+     * method fails. Runtime exceptions and errors
+     * are thrown as they are
+     *
+     * @param error the method error
+     * @return the exception to throw
+     */
+    static RuntimeException rethrow(final Throwable error) {
+        if (error instanceof RuntimeException) return (RuntimeException) error;
+        if (error instanceof Error) throw (Error) error;
+
+        return new ScriptWorkException(error);
+    }
+
+    private static MethodHandle converter(final MethodHandles.Lookup lookup, final String name, final Class<?> type) throws ReflectiveOperationException {
+        return lookup.findStatic(Converters.class, name, MethodType.methodType(type, Variable.class));
+    }
+
+    private static Class<?> unbox(final Class<?> type) {
+        if (type == Long.class) return long.class;
+        if (type == Integer.class) return int.class;
+        if (type == Short.class) return short.class;
+        if (type == Byte.class) return byte.class;
+        if (type == Double.class) return double.class;
+        if (type == Float.class) return float.class;
+        if (type == Boolean.class) return boolean.class;
+        if (type == Character.class) return char.class;
+
+        return type;
+    }
+
+    private static long toLong(final Variable variable) {
+        return variable.getLong();
+    }
+
+    private static int toInt(final Variable variable) {
+        long value = variable.getLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new ScriptWorkException("Cannot read " + variable.getName() + " as int because " + value + " is out of range");
+        }
+
+        return (int) value;
+    }
+
+    private static short toShort(final Variable variable) {
+        long value = variable.getLong();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new ScriptWorkException("Cannot read " + variable.getName() + " as short because " + value + " is out of range");
+        }
+
+        return (short) value;
+    }
+
+    private static byte toByte(final Variable variable) {
+        long value = variable.getLong();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new ScriptWorkException("Cannot read " + variable.getName() + " as byte because " + value + " is out of range");
+        }
+
+        return (byte) value;
+    }
+
+    private static double toDouble(final Variable variable) {
+        return variable.getDouble();
+    }
+
+    private static float toFloat(final Variable variable) {
+        return (float) variable.getDouble();
+    }
+
+    private static boolean toBoolean(final Variable variable) {
+        return variable.getBoolean();
+    }
+
+    private static char toChar(final Variable variable) {
+        String value = variable.getString();
+        if (value.length() != 1) {
+            throw new ScriptWorkException("Cannot read " + variable.getName() + " as char because it's not a single character");
+        }
+
+        return value.charAt(0);
+    }
+
+    private static String toString(final Variable variable) {
+        if (variable.isNull()) return null;
+        return variable.getString();
+    }
+
+    private static Object toObject(final Variable variable, final Class<?> type) {
+        if (variable.isNull()) return null;
+
+        Object value = variable.getValue(type);
+        if (value == null) {
+            throw new ScriptWorkException("Cannot read " + variable.getName() + " as " + type.getSimpleName());
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Variable wrap(final Object value) {
+        if (value == null) return NullReference.get();
+        if (value instanceof Variable) return (Variable) value;
+        if (value instanceof String) return Variable.of((String) value);
+        if (value instanceof Boolean) return Variable.of((boolean) (Boolean) value);
+        if (value instanceof Double || value instanceof Float) return Variable.of(((Number) value).doubleValue());
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return Variable.of(((Number) value).longValue());
+        }
+
+        return new ObjectVariable(value, (Class<Object>) value.getClass());
+    }
+}
@@ -0,0 +1,192 @@
+package es.karmadev.api.script.lang.bind;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.Variable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Import binder. The binder turns the {@link ScriptFunction}
+ * methods of a {@link ScriptImport} class into import functions.
+ * <p>
+ * Every method is linked into a method handle when it's bound,
+ * and the conversion of its parameters from script variables is
+ * chosen from the method signature at that moment, so calling a
+ * bound function does not use reflection. Methods returning void
+ * return {@link es.karmadev.api.script.lang.variables.VoidReturn}
+ */
+public final class ImportBinder {
+
+    private ImportBinder() {}
+
+    /**
+     * Bind an import instance. Both the static
+     * and instance functions of the import are bound
+     *
+     * @param instance the import instance
+     * @return the import
+     * @throws IllegalArgumentException if the instance class is not
+     * a valid import
+     */
+    public static Import bind(final Object instance) throws IllegalArgumentException {
+        return bind(instance.getClass(), instance, MethodHandles.publicLookup());
+    }
+
+    /**
+     * Bind an import instance, using the lookup to
+     * access the import methods
+     *
+     * @param instance the import instance
+     * @param lookup the lookup with access to the import methods
+     * @return the import
+     * @throws IllegalArgumentException if the instance class is not
+     * a valid import
+     */
+    public static Import bind(final Object instance, final MethodHandles.Lookup lookup) throws IllegalArgumentException {
+        return bind(instance.getClass(), instance, lookup);
+    }
+
+    /**
+     * Bind an import class. The import can only
+     * have static functions
+     *
+     * @param type the import class
+     * @return the import
+     * @throws IllegalArgumentException if the class is not
+     * a valid import
+     */
+    public static Import bind(final Class<?> type) throws IllegalArgumentException {
+        return bind(type, null, MethodHandles.publicLookup());
+    }
+
+    /**
+     * Bind an import class, using the lookup to access
+     * the import methods. The import can only have static
+     * functions
+     *
+     * @param type the import class
+     * @param lookup the lookup with access to the import methods
+     * @return the import
+     * @throws IllegalArgumentException if the class is not
+     * a valid import
+     */
+    public static Import bind(final Class<?> type, final MethodHandles.Lookup lookup) throws IllegalArgumentException {
+        return bind(type, null, lookup);
+    }
+
+    private static Import bind(final Class<?> type, final Object instance, final MethodHandles.Lookup lookup) {
+        ScriptImport annotation = type.getAnnotation(ScriptImport.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException("Cannot bind " + type.getName() + " because it's not annotated with @ScriptImport");
+        }
+
+        List<Binding> bindings = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        Set<String> functions = new HashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                ScriptFunction function = method.getAnnotation(ScriptFunction.class);
+                if (function == null || method.isBridge() || method.isSynthetic()) continue;
+                if (!signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) continue;
+
+                Binding binding = bind(method, function, instance, lookup);
+                if (!functions.add(binding.name + "/" + binding.parameters + (binding.varargs ? "+" : ""))) {
+                    throw new IllegalArgumentException("Cannot bind " + type.getName() + " because function " +
+                            binding.name + " is defined twice with " + binding.parameters + " parameters");
+                }
+
+                bindings.add(binding);
+            }
+        }
+
+        return new BoundImport(annotation.value(), bindings);
+    }
+
+    private static Binding bind(final Method method, final ScriptFunction function, final Object instance,
+                                final MethodHandles.Lookup lookup) {
+        String name = (function.value().isEmpty() ? method.getName() : function.value());
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic && instance == null) {
+            throw new IllegalArgumentException("Cannot bind " + method + " because it's not static, and there's no import instance");
+        }
+
+        MethodHandle handle = unreflect(method, lookup);
+        if (!isStatic) handle = handle.bindTo(instance);
+
+        Class<?>[] types = handle.type().parameterArray();
+        boolean varargs = types.length > 0 && types[types.length - 1] == Variable[].class;
+        int parameters = (varargs ? types.length - 1 : types.length);
+
+        MethodHandle[] filters = new MethodHandle[types.length];
+        Class<?>[] variables = new Class<?>[types.length];
+        for (int i = 0; i < parameters; i++) {
+            filters[i] = Converters.of(types[i]);
+            variables[i] = Variable.class;
+        }
+        if (varargs) variables[parameters] = Variable[].class;
+
+        MethodHandle invoker = MethodHandles.filterArguments(handle, 0, filters)
+                .asType(MethodType.methodType(Object.class, variables));
+
+        return new Binding(name, parameters, varargs, invoker);
+    }
+
+    /**
+     * Unreflect a method. If the lookup has no access
+     * to the method, the method is made accessible
+     *
+     * @param method the method
+     * @param lookup the lookup
+     * @return the method handle
+     * @throws IllegalArgumentException if the method cannot
+     * be made accessible
+     */
+    static MethodHandle unreflect(final Method method, final MethodHandles.Lookup lookup) throws IllegalArgumentException {
+        try {
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException ignored) {}
+
+        try {
+            method.setAccessible(true);
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalArgumentException("Cannot bind " + method + " because it's not accessible", ex);
+        }
+    }
+
+    /**
+     * Represents a java method linked
+     * as a script function
+     */
+    final static class Binding {
+
+        final String name;
+        final int parameters;
+        final boolean varargs;
+        final MethodHandle invoker;
+
+        /**
+         * Initialize the binding
+         *
+         * @param name the function name
+         * @param parameters the amount of required parameters
+         * @param varargs if the function accepts more parameters
+         * @param invoker the function invoker
+         */
+        Binding(final String name, final int parameters, final boolean varargs, final MethodHandle invoker) {
+            this.name = name;
+            this.parameters = parameters;
+            this.varargs = varargs;
+            this.invoker = invoker;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package es.karmadev.api.script.lang.bind;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the access to a member of host objects
+ * from a single script call site, for instance the
+ * <code>name</code> property of <code>player.name</code>,
+ * or the <code>teleport</code> method of
+ * <code>player#teleport(x, y)</code>.
+ * <p>
+ * Members are linked into method handles the first time
+ * they are accessed on a receiver class. Each site keeps
+ * the handles of the last receiver classes it has seen, so
+ * monomorphic and polymorphic sites don't look up their member
+ * again. Megamorphic sites fall back to the handles linked by
+ * every site, which are shared per receiver class.
+ * <p>
+ * Members of non-public receiver classes are linked through the
+ * public supertype or interface which declares them
+ */
+public final class MemberSite {
+
+    /**
+     * The maximum amount of receiver classes
+     * a site caches by itself
+     */
+    public final static int MAX_ENTRIES = 4;
+
+    private final static Entry[] EMPTY = new Entry[0];
+    private final static ClassValue<ConcurrentMap<String, MethodHandle>> members = new ClassValue<ConcurrentMap<String, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<String, MethodHandle> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final String name;
+    private final int arity;
+    private final String key;
+
+    private volatile Entry[] entries = EMPTY;
+
+    private MemberSite(final String name, final int arity) {
+        this.name = name;
+        this.arity = arity;
+        this.key = (arity == -1 ? "." + name : name + "/" + arity);
+    }
+
+    /**
+     * Create a property access site. A property
+     * is read through its getter, or through its
+     * public field if it has no getter
+     *
+     * @param name the property name
+     * @return the member site
+     */
+    public static MemberSite property(final String name) {
+        return new MemberSite(name, -1);
+    }
+
+    /**
+     * Create a method call site
+     *
+     * @param name the method name
+     * @param arity the amount of arguments of the call
+     * @return the member site
+     */
+    public static MemberSite method(final String name, final int arity) {
+        return new MemberSite(name, Math.max(0, arity));
+    }
+
+    /**
+     * Get the member name
+     *
+     * @return the member name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get if the site reads a property
+     *
+     * @return if the member is a property
+     */
+    public boolean isProperty() {
+        return arity == -1;
+    }
+
+    /**
+     * Get the amount of receiver classes
+     * the site has cached
+     *
+     * @return the cached receivers
+     */
+    public int getCachedReceivers() {
+        return entries.length;
+    }
+
+    /**
+     * Read the property of a host object
+     *
+     * @param receiver the variable holding the host object
+     * @return the property value
+     * @throws ScriptWorkException if the receiver is null, or
+     * has no such property
+     */
+    public Variable get(final Variable receiver) throws ScriptWorkException {
+        Object target = target(receiver);
+        try {
+            return (Variable) handle(target.getClass()).invokeExact(target);
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    /**
+     * Call the method of a host object
+     *
+     * @param receiver the variable holding the host object
+     * @param arguments the method arguments
+     * @return the method result
+     * @throws ScriptWorkException if the receiver is null, or
+     * has no such method
+     */
+    public Variable invoke(final Variable receiver, final Variable[] arguments) throws ScriptWorkException {
+        Object target = target(receiver);
+        try {
+            return (Variable) handle(target.getClass()).invokeExact(target, arguments);
+        } catch (Throwable ex) {
+            throw Converters.rethrow(ex);
+        }
+    }
+
+    private Object target(final Variable receiver) {
+        Object target = (receiver.isNull() ? null : receiver.getValue(Object.class));
+        if (target == null) {
+            throw new ScriptWorkException("Cannot access " + name + " of " + receiver.getName() + " because it's null");
+        }
+
+        return target;
+    }
+
+    private MethodHandle handle(final Class<?> type) {
+        Entry[] entries = this.entries;
+        for (Entry entry : entries) {
+            if (entry.type == type) return entry.handle;
+        }
+
+        MethodHandle handle = members.get(type).computeIfAbsent(key, (k) -> link(type));
+        if (entries.length < MAX_ENTRIES) {
+            Entry[] grown = Arrays.copyOf(entries, entries.length + 1);
+            grown[entries.length] = new Entry(type, handle);
+            this.entries = grown;
+        }
+
+        return handle;
+    }
+
+    private MethodHandle link(final Class<?> type) {
+        try {
+            return (arity == -1 ? linkProperty(type) : linkMethod(type));
+        } catch (IllegalArgumentException | IllegalAccessException ex) {
+            throw new ScriptWorkException("Cannot access " + name + " of " + type.getName() + " (" + ex.getMessage() + ")");
+        }
+    }
+
+    private MethodHandle linkProperty(final Class<?> type) throws IllegalAccessException {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        Method getter = null;
+        int priority = Integer.MAX_VALUE;
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers()) ||
+                    method.getReturnType() == void.class) continue;
+
+            String methodName = method.getName();
+            int methodPriority;
+            if (methodName.equals("get" + capitalized)) {
+                methodPriority = 0;
+            } else if (methodName.equals("is" + capitalized) && method.getReturnType() == boolean.class) {
+                methodPriority = 1;
+            } else if (methodName.equals(name)) {
+                methodPriority = 2;
+            } else {
+                continue;
+            }
+
+            if (methodPriority < priority) {
+                getter = method;
+                priority = methodPriority;
+            }
+        }
+
+        MethodHandle handle;
+        if (getter != null) {
+            handle = ImportBinder.unreflect(accessible(type, getter), MethodHandles.publicLookup());
+        } else {
+            Field field;
+            try {
+                field = type.getField(name);
+            } catch (NoSuchFieldException ex) {
+                field = null;
+            }
+            if (field == null || Modifier.isStatic(field.getModifiers())) {
+                throw new ScriptWorkException("Cannot read property " + name + " of " + type.getName() +
+                        " because it has no getter or public field");
+            }
+
+            try {
+                handle = MethodHandles.publicLookup().unreflectGetter(field);
+            } catch (IllegalAccessException ex) {
+                try {
+                    field.setAccessible(true);
+                } catch (RuntimeException ignored) {
+                    throw ex;
+                }
+
+                handle = MethodHandles.publicLookup().unreflectGetter(field);
+            }
+        }
+
+        return returning(handle).asType(MethodType.methodType(Variable.class, Object.class));
+    }
+
+    private MethodHandle linkMethod(final Class<?> type) {
+        Method target = null;
+        for (Method method : type.getMethods()) {
+            if (!method.getName().equals(name) || method.getParameterCount() != arity ||
+                    Modifier.isStatic(method.getModifiers()) || method.isBridge()) continue;
+
+            if (target != null) {
+                throw new ScriptWorkException("Cannot call " + name + " of " + type.getName() + " because it has more than one " +
+                        "method with " + arity + " parameters");
+            }
+            target = method;
+        }
+        if (target == null) {
+            throw new ScriptWorkException("Cannot call " + name + " of " + type.getName() + " because it has no method with " +
+                    arity + " parameters");
+        }
+
+        MethodHandle handle = ImportBinder.unreflect(accessible(type, target), MethodHandles.publicLookup());
+
+        Class<?>[] types = target.getParameterTypes();
+        MethodHandle[] filters = new MethodHandle[types.length];
+        Class<?>[] variables = new Class<?>[types.length + 1];
+        variables[0] = Object.class;
+        for (int i = 0; i < types.length; i++) {
+            filters[i] = Converters.of(types[i]);
+            variables[i + 1] = Variable.class;
+        }
+
+        return MethodHandles.filterArguments(returning(handle), 1, filters)
+                .asType(MethodType.methodType(Variable.class, variables))
+                .asSpreader(Variable[].class, arity);
+    }
+
+    /**
+     * Get the method a public type of the receiver
+     * declares for a method. Methods implemented by non-public
+     * classes, such as the lists of {@link java.util.Collections#unmodifiableList(java.util.List)},
+     * can't be accessed through their class, but can through
+     * the public supertype or interface which declares them
+     *
+     * @param type the receiver class
+     * @param method the method
+     * @return the method of the first public supertype or
+     * interface which declares it, or the method itself if it's
+     * declared by a public class or no public type declares it
+     */
+    private static Method accessible(final Class<?> type, final Method method) {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) return method;
+
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        pending.add(type);
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.poll();
+            if (!visited.add(current)) continue;
+
+            if (Modifier.isPublic(current.getModifiers())) {
+                try {
+                    Method declared = current.getMethod(method.getName(), method.getParameterTypes());
+                    if (Modifier.isPublic(declared.getDeclaringClass().getModifiers())) return declared;
+                } catch (NoSuchMethodException ignored) {}
+            }
+
+            Class<?> parent = current.getSuperclass();
+            if (parent != null) pending.add(parent);
+            pending.addAll(Arrays.asList(current.getInterfaces()));
+        }
+
+        return method;
+    }
+
+    private static MethodHandle returning(final MethodHandle handle) {
+        Class<?> type = handle.type().returnType();
+        if (type == void.class) {
+            return MethodHandles.filterReturnValue(handle.asType(handle.type().changeReturnType(Object.class)),
+                    Converters.wrapper(Object.class));
+        }
+
+        return MethodHandles.filterReturnValue(handle, Converters.wrapper(type));
+    }
+
+    @Override
+    public String toString() {
+        return (arity == -1 ? "." + name : "#" + name + "(" + arity + ")");
+    }
+
+    /**
+     * Represents a receiver class cached
+     * by a site, and its linked member
+     */
+    private final static class Entry {
+
+        private final Class<?> type;
+        private final MethodHandle handle;
+
+        /**
+         * Initialize the entry
+         *
+         * @param type the receiver class
+         * @param handle the member handle
+         */
+        Entry(final Class<?> type, final MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+}
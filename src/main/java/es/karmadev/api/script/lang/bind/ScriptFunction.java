@@ -0,0 +1,26 @@
+package es.karmadev.api.script.lang.bind;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method as a script function. The
+ * method parameters are converted from the script
+ * variables, and a trailing {@code Variable...} parameter
+ * makes the function accept any number of parameters
+ * after the required ones
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ScriptFunction {
+
+    /**
+     * Get the function name. If empty, the
+     * method name is used
+     *
+     * @return the function name
+     */
+    String value() default "";
+}
@@ -0,0 +1,24 @@
+package es.karmadev.api.script.lang.bind;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as a script import. The
+ * {@link ScriptFunction} methods of the class
+ * are bound as the import functions by
+ * {@link ImportBinder}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ScriptImport {
+
+    /**
+     * Get the import name
+     *
+     * @return the import name
+     */
+    String value();
+}
@@ -0,0 +1,32 @@
+package es.karmadev.api.script.lang.imports;
+
+import es.karmadev.api.script.body.Import;
+
+/**
+ * Provider of a script import. Providers are
+ * discovered by the {@link ImportRegistry#global() global}
+ * registry through {@link java.util.ServiceLoader}, by
+ * listing them in
+ * <code>META-INF/services/es.karmadev.api.script.lang.imports.ImportProvider</code>.
+ * <p>
+ * The import of a provider is only created the first time a
+ * script defines it, so providers should be cheap to create, and
+ * leave the creation of their import to {@link #create()}
+ */
+public interface ImportProvider {
+
+    /**
+     * Get the name of the provided import
+     *
+     * @return the import name
+     */
+    String getName();
+
+    /**
+     * Create the import. This is called
+     * only once per registry
+     *
+     * @return the import
+     */
+    Import create();
+}
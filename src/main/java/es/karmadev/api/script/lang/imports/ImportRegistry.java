@@ -0,0 +1,303 @@
+package es.karmadev.api.script.lang.imports;
+
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.lang.imports.sys.System;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the imports scripts can define. Imports
+ * are registered by name, and looked up with a single hash
+ * lookup. Registrations are copied on write, so lookups never
+ * lock, and see either all or none of a registration.
+ * <p>
+ * Imports can be registered lazily, through a supplier or an
+ * {@link ImportProvider}, in which case the import is created
+ * the first time it's looked up, so imports which no script
+ * defines are never created. A registry can have a parent, whose
+ * imports are visible unless the registry registers an import with
+ * the same name
+ */
+public final class ImportRegistry {
+
+    private final static Logger logger = Logger.getLogger(ImportRegistry.class.getName());
+    private final static ImportRegistry GLOBAL = new ImportRegistry(null, true);
+
+    static {
+        GLOBAL.register(System.getImport());
+    }
+
+    private final ImportRegistry parent;
+    private final Object writing = new Object();
+
+    private volatile Map<String, Entry> entries = Collections.emptyMap();
+    private volatile boolean discover;
+
+    /**
+     * Initialize an empty registry
+     */
+    public ImportRegistry() {
+        this(null, false);
+    }
+
+    /**
+     * Initialize a registry on top
+     * of a parent registry
+     *
+     * @param parent the parent registry
+     */
+    public ImportRegistry(final ImportRegistry parent) {
+        this(parent, false);
+    }
+
+    private ImportRegistry(final ImportRegistry parent, final boolean discover) {
+        this.parent = parent;
+        this.discover = discover;
+    }
+
+    /**
+     * Get the global registry. The global registry
+     * has the <code>system</code> import, and discovers
+     * the {@link ImportProvider import providers} of the
+     * class path the first time it's asked for an import
+     * it doesn't have
+     *
+     * @return the global registry
+     */
+    public static ImportRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Create a registry with the
+     * specified imports
+     *
+     * @param imports the imports
+     * @return the registry
+     */
+    public static ImportRegistry of(final Collection<Import> imports) {
+        Map<String, Entry> entries = new HashMap<>();
+        for (Import imp : imports) {
+            entries.putIfAbsent(imp.getName(), new Entry(imp));
+        }
+
+        ImportRegistry registry = new ImportRegistry();
+        registry.entries = entries;
+
+        return registry;
+    }
+
+    /**
+     * Register an import. The import replaces
+     * the import registered with the same name
+     *
+     * @param imp the import
+     * @return the registry
+     */
+    public ImportRegistry register(final Import imp) {
+        put(imp.getName(), new Entry(imp));
+        return this;
+    }
+
+    /**
+     * Register an import, which is created
+     * the first time it's looked up
+     *
+     * @param name the import name
+     * @param factory the import factory
+     * @return the registry
+     */
+    public ImportRegistry register(final String name, final Supplier<Import> factory) {
+        put(name, new Entry(name, factory));
+        return this;
+    }
+
+    /**
+     * Register the import of a provider. The
+     * import is created the first time it's
+     * looked up
+     *
+     * @param provider the import provider
+     * @return the registry
+     */
+    public ImportRegistry register(final ImportProvider provider) {
+        return register(provider.getName(), provider::create);
+    }
+
+    /**
+     * Remove an import from
+     * the registry
+     *
+     * @param name the import name
+     * @return if the import was registered
+     */
+    public boolean unregister(final String name) {
+        synchronized (writing) {
+            if (!entries.containsKey(name)) return false;
+
+            Map<String, Entry> entries = new HashMap<>(this.entries);
+            entries.remove(name);
+            this.entries = entries;
+
+            return true;
+        }
+    }
+
+    /**
+     * Get an import. If the import is registered
+     * lazily, it's created by the first lookup
+     *
+     * @param name the import name
+     * @return the import, or null if there's
+     * no import with that name
+     * @throws IllegalArgumentException if the created
+     * import has another name
+     */
+    public Import get(final String name) throws IllegalArgumentException {
+        Entry entry = entries.get(name);
+        if (entry == null && discover) {
+            synchronized (writing) {
+                if (discover) discover(Thread.currentThread().getContextClassLoader());
+            }
+            entry = entries.get(name);
+        }
+
+        if (entry != null) return entry.get();
+        return (parent == null ? null : parent.get(name));
+    }
+
+    /**
+     * Get if an import is registered, without
+     * creating it
+     *
+     * @param name the import name
+     * @return if the import is registered
+     */
+    public boolean contains(final String name) {
+        return entries.containsKey(name) || (parent != null && parent.contains(name));
+    }
+
+    /**
+     * Get the names of the registered
+     * imports, including the parent imports
+     *
+     * @return the import names
+     */
+    public Set<String> getNames() {
+        Set<String> names = new TreeSet<>(entries.keySet());
+        if (parent != null) names.addAll(parent.getNames());
+
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Register the import providers of a class
+     * loader. The imports which are already registered
+     * are not replaced by the discovered ones. The
+     * providers which fail to load are logged and skipped
+     *
+     * @param loader the class loader, or null to
+     *               use the system class loader
+     */
+    public void discover(final ClassLoader loader) {
+        synchronized (writing) {
+            discover = false;
+
+            Map<String, Entry> entries = new HashMap<>(this.entries);
+            Iterator<ImportProvider> providers = ServiceLoader.load(ImportProvider.class, loader).iterator();
+            while (true) {
+                try {
+                    if (!providers.hasNext()) break;
+
+                    ImportProvider provider = providers.next();
+                    entries.putIfAbsent(provider.getName(), new Entry(provider.getName(), provider::create));
+                } catch (ServiceConfigurationError ex) {
+                    logger.log(Level.WARNING, "Failed to load an import provider", ex);
+                }
+            }
+
+            this.entries = entries;
+        }
+    }
+
+    private void put(final String name, final Entry entry) {
+        synchronized (writing) {
+            Map<String, Entry> entries = new HashMap<>(this.entries);
+            entries.put(name, entry);
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * Represents a registered import, which
+     * may not have been created yet
+     */
+    private final static class Entry {
+
+        private final String name;
+        private final Supplier<Import> factory;
+
+        private volatile Import instance;
+
+        /**
+         * Initialize an entry of an
+         * already created import
+         *
+         * @param imp the import
+         */
+        Entry(final Import imp) {
+            this.name = imp.getName();
+            this.factory = null;
+            this.instance = imp;
+        }
+
+        /**
+         * Initialize a lazy entry
+         *
+         * @param name the import name
+         * @param factory the import factory
+         */
+        Entry(final String name, final Supplier<Import> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        /**
+         * Get the import, creating
+         * it if required
+         *
+         * @return the import
+         * @throws IllegalArgumentException if the created
+         * import has another name
+         */
+        Import get() throws IllegalArgumentException {
+            Import imp = instance;
+            if (imp != null) return imp;
+
+            synchronized (this) {
+                if (instance == null) {
+                    imp = factory.get();
+                    if (imp == null || !name.equals(imp.getName())) {
+                        throw new IllegalArgumentException("Import provider of " + name + " created " +
+                                (imp == null ? "no import" : "import " + imp.getName()));
+                    }
+
+                    instance = imp;
+                }
+
+                return instance;
+            }
+        }
+    }
+}
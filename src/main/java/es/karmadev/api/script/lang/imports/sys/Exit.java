@@ -4,6 +4,7 @@ import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.Variable;
 import es.karmadev.api.script.body.func.Function;
 import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.exec.OutputSink;
 import es.karmadev.api.script.lang.variables.ExitVoidReturn;
 
 /**
@@ -77,16 +78,78 @@ public class Exit implements Function {
      */
     @Override
     public Object execute(final Variable... parameters) {
-        Variable first = parameters[0];
-        if (!first.getType().equals(Number.class)) {
-            throw new ScriptWorkException("Invalid parameter #1, expected number but got " + parameters[0]);
-        }
+        if (parameters.length == 0) return execute0();
+
+        Variable[] values = parameters.clone();
+        values[0] = message(parameters[0], parameters.length > 1);
+        imp.print.execute(values);
+
+        return exit();
+    }
+
+    /**
+     * Execute a method without
+     * parameters
+     *
+     * @return the method result
+     */
+    @Override
+    public Object execute0() {
+        throw new ScriptWorkException("Invalid parameters, expected at least 1 parameter for exit");
+    }
+
+    /**
+     * Execute a method with a
+     * single parameter
+     *
+     * @param first the first parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute1(final Variable first) {
+        imp.print.execute1(message(first, false));
+        return exit();
+    }
 
-        int code = first.getValue(Number.class).intValue();
-        parameters[0] = Variable.wrap("Exiting program (" + code + ")." + (parameters.length > 1 ? " " : ""), String.class);
+    /**
+     * Execute a method with two
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute2(final Variable first, final Variable second) {
+        imp.print.execute2(message(first, true), second);
+        return exit();
+    }
 
-        imp.exit.execute(parameters);
+    /**
+     * Execute a method with three
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @param third the third parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute3(final Variable first, final Variable second, final Variable third) {
+        imp.print.execute3(message(first, true), second, third);
+        return exit();
+    }
 
+    private static Object exit() {
+        OutputSink.current().flush();
         return ExitVoidReturn.get();
     }
+
+    private static Variable message(final Variable code, final boolean more) {
+        if (!code.getType().equals(Number.class)) {
+            throw new ScriptWorkException("Invalid parameter #1, expected number but got " + code);
+        }
+
+        return Variable.of("Exiting program (" + (int) code.getLong() + ")." + (more ? " " : ""));
+    }
 }
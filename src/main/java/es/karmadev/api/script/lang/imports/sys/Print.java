@@ -3,11 +3,10 @@ package es.karmadev.api.script.lang.imports.sys;
 import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.Variable;
 import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+import es.karmadev.api.script.exec.OutputSink;
 import es.karmadev.api.script.lang.variables.VoidReturn;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * println function for {@link System}
  */
@@ -79,86 +78,64 @@ public class Print implements Function {
      */
     @Override
     public Object execute(final Variable... parameters) {
-        Variable first = parameters[0];
-        Class<?> type = (Class<?>) first.getType();
-
-        if (parameters.length == 1) {
-            if (type.isArray()) {
-                Object[] array = first.getValue(Object[].class);
-                String raw = resolveArray(array);
-                java.lang.System.out.print(raw);
-
-                return VoidReturn.get();
-            }
-
-            java.lang.System.out.print(first.getValue(Object.class));
-        }
-
-        if (parameters.length >= 2) {
-            String formatted = String.valueOf(first.getValue(Object.class));
-            if (type.isArray()) {
-                Object[] array = first.getValue(Object[].class);
-                formatted = resolveArray(array);
-            }
-
-            int replacement = 0;
-            List<Variable> nonReplaced = new ArrayList<>();
-            for (int i = 1; i < parameters.length; i++) {
-                String placeholder = "$" + replacement;
-                Variable value = parameters[i];
-                Class<?> valType = (Class<?>) value.getType();
-
-                String raw = String.valueOf(value.getValue(Object.class));
-                if (valType.isArray()) {
-                    Object[] array = value.getValue(Object[].class);
-                    raw = resolveArray(array);
-                }
-
-                if (formatted.contains(placeholder)) {
-                    formatted = formatted.replace(placeholder, raw);
-                    replacement++;
-                } else {
-                    nonReplaced.add(value);
-                }
-            }
-
-            StringBuilder formatBuilder = new StringBuilder(formatted);
-            for (Variable missing : nonReplaced) {
-                Class<?> valType = (Class<?>) missing.getType();
+        if (parameters.length == 0) return execute0();
+        if (parameters.length == 1) return execute1(parameters[0]);
 
-                String raw = String.valueOf(missing.getValue(Object.class));
-                if (valType.isArray()) {
-                    Object[] array = missing.getValue(Object[].class);
-                    raw = resolveArray(array);
-                }
-
-                formatBuilder.append(raw);
-            }
-            formatted = formatBuilder.toString();
+        return print(PrintTemplate.of(parameters[0]).render(parameters, 1, null));
+    }
 
-            java.lang.System.out.print(formatted);
-        }
+    /**
+     * Execute a method without
+     * parameters
+     *
+     * @return the method result
+     */
+    @Override
+    public Object execute0() {
+        throw new ScriptWorkException("Invalid parameters, expected at least 1 parameter for print");
+    }
 
-        return VoidReturn.get();
+    /**
+     * Execute a method with a
+     * single parameter
+     *
+     * @param first the first parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute1(final Variable first) {
+        return print(PrintTemplate.text(first));
     }
 
-    private String resolveArray(final Object[] array) {
-        StringBuilder builder = new StringBuilder();
-        for (Object element : array) {
-            if (element instanceof Variable) {
-                Variable var = (Variable) element;
-                if (var.isNull()) {
-                    element = null;
-                } else {
-                    element = var.getValue(Object.class);
-                }
-            }
+    /**
+     * Execute a method with two
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute2(final Variable first, final Variable second) {
+        return print(PrintTemplate.of(first).render(second));
+    }
 
-            if (element != null) {
-                builder.append(element);
-            }
-        }
+    /**
+     * Execute a method with three
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @param third the third parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute3(final Variable first, final Variable second, final Variable third) {
+        return print(PrintTemplate.of(first).render(second, third));
+    }
 
-        return builder.toString();
+    private static Object print(final String text) {
+        OutputSink.current().write(text);
+        return VoidReturn.get();
     }
 }
@@ -3,12 +3,16 @@ package es.karmadev.api.script.lang.imports.sys;
 import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.Variable;
 import es.karmadev.api.script.body.func.Function;
+import es.karmadev.api.script.exec.OutputSink;
+import es.karmadev.api.script.lang.variables.VoidReturn;
 
 /**
  * println function for {@link System}
  */
 public class PrintLn implements Function {
 
+    private final static Variable NEW_LINE = Variable.wrap('\n', Character.class);
+
     private final System imp;
 
     /**
@@ -75,14 +79,129 @@ public class PrintLn implements Function {
      */
     @Override
     public Object execute(final Variable... parameters) {
-        if (parameters.length == 0) {
-            java.lang.System.out.println();
-        }
+        if (parameters.length == 0) return execute0();
+
+        return println(PrintTemplate.of(parameters[0]), parameters, 1);
+    }
+
+    /**
+     * Execute a method without
+     * parameters
+     *
+     * @return the method result
+     */
+    @Override
+    public Object execute0() {
+        OutputSink.current().writeLine("");
+        return VoidReturn.get();
+    }
+
+    /**
+     * Execute a method with a
+     * single parameter
+     *
+     * @param first the first parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute1(final Variable first) {
+        return println(PrintTemplate.of(first));
+    }
+
+    /**
+     * Execute a method with two
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute2(final Variable first, final Variable second) {
+        return println(PrintTemplate.of(first), second);
+    }
+
+    /**
+     * Execute a method with three
+     * parameters
+     *
+     * @param first the first parameter
+     * @param second the second parameter
+     * @param third the third parameter
+     * @return the method result
+     */
+    @Override
+    public Object execute3(final Variable first, final Variable second, final Variable third) {
+        return println(PrintTemplate.of(first), second, third);
+    }
 
-        Variable[] p = new Variable[parameters.length + 1];
-        java.lang.System.arraycopy(parameters, 0, p, 0, parameters.length);
-        p[p.length - 1] = Variable.wrap('\n', Character.class);
+    /**
+     * Print a template followed by a new line. The
+     * new line is passed to the template as the last
+     * value, as every other println call does
+     *
+     * @param template the template
+     * @param values the values
+     * @param from the index of the first value
+     * @return the method result
+     */
+    public static Object println(final PrintTemplate template, final Variable[] values, final int from) {
+        OutputSink.current().write(template.render(values, from, NEW_LINE));
+        return VoidReturn.get();
+    }
 
-        return imp.print.execute(p);
+    /**
+     * Print a template without values
+     * followed by a new line
+     *
+     * @param template the template
+     * @return the method result
+     */
+    public static Object println(final PrintTemplate template) {
+        OutputSink.current().write(template.render(NEW_LINE));
+        return VoidReturn.get();
+    }
+
+    /**
+     * Print a template with a single value
+     * followed by a new line
+     *
+     * @param template the template
+     * @param first the first value
+     * @return the method result
+     */
+    public static Object println(final PrintTemplate template, final Variable first) {
+        OutputSink.current().write(template.render(first, NEW_LINE));
+        return VoidReturn.get();
+    }
+
+    /**
+     * Print a template with two values
+     * followed by a new line
+     *
+     * @param template the template
+     * @param first the first value
+     * @param second the second value
+     * @return the method result
+     */
+    public static Object println(final PrintTemplate template, final Variable first, final Variable second) {
+        OutputSink.current().write(template.render(first, second, NEW_LINE));
+        return VoidReturn.get();
+    }
+
+    /**
+     * Print a template with three values
+     * followed by a new line
+     *
+     * @param template the template
+     * @param first the first value
+     * @param second the second value
+     * @param third the third value
+     * @return the method result
+     */
+    public static Object println(final PrintTemplate template, final Variable first, final Variable second,
+                                 final Variable third) {
+        OutputSink.current().write(template.render(first, second, third, NEW_LINE));
+        return VoidReturn.get();
     }
 }
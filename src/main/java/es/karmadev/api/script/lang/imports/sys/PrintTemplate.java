@@ -0,0 +1,349 @@
+package es.karmadev.api.script.lang.imports.sys;
+
+import es.karmadev.api.script.body.Variable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents a compiled print format. The format is split
+ * once into literal runs and <code>$n</code> placeholders, so
+ * rendering it is a single pass over its segments.
+ * <p>
+ * Values replace the placeholders in order: the first value
+ * replaces <code>$0</code>, the next one <code>$1</code>, and so on,
+ * while the format has the next placeholder. The rest of the values
+ * are appended at the end, in the order they were given. Placeholders
+ * without a value are printed as they are
+ */
+public final class PrintTemplate {
+
+    private final static int MAX_CACHED = 512;
+    private final static int MAX_BUFFER = 8192;
+
+    private final static ConcurrentMap<String, PrintTemplate> cache = new ConcurrentHashMap<>();
+    private final static ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final String format;
+    private final String[] literals;
+    private final int[] placeholders;
+    private final String[] raw;
+    private final int sequence;
+
+    private PrintTemplate(final String format, final String[] literals, final int[] placeholders, final String[] raw,
+                          final int sequence) {
+        this.format = format;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.raw = raw;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Compile a format
+     *
+     * @param format the format
+     * @return the template
+     */
+    public static PrintTemplate compile(final String format) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        List<String> raw = new ArrayList<>();
+
+        int start = 0;
+        int length = format.length();
+        for (int i = 0; i < length; i++) {
+            if (format.charAt(i) != '$' || i + 1 >= length || !isDigit(format.charAt(i + 1))) continue;
+
+            int end = i + 1;
+            int index = 0;
+            while (end < length && isDigit(format.charAt(end)) && index <= (Integer.MAX_VALUE - 9) / 10) {
+                index = index * 10 + (format.charAt(end++) - '0');
+            }
+
+            literals.add(format.substring(start, i));
+            placeholders.add(index);
+            raw.add(format.substring(i, end));
+
+            start = end;
+            i = end - 1;
+        }
+        literals.add(format.substring(start));
+
+        int[] indexes = new int[placeholders.size()];
+        boolean[] present = new boolean[indexes.length + 1];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = placeholders.get(i);
+            if (indexes[i] < present.length) present[indexes[i]] = true;
+        }
+
+        int sequence = 0;
+        while (present[sequence]) sequence++;
+
+        return new PrintTemplate(format, literals.toArray(new String[0]), indexes, raw.toArray(new String[0]), sequence);
+    }
+
+    /**
+     * Get the template of a format. Templates
+     * are cached by format, so formats which are
+     * printed many times are compiled only once
+     *
+     * @param format the format
+     * @return the template
+     */
+    public static PrintTemplate of(final String format) {
+        PrintTemplate template = cache.get(format);
+        if (template != null) return template;
+
+        template = compile(format);
+        if (cache.size() < MAX_CACHED) {
+            PrintTemplate existing = cache.putIfAbsent(format, template);
+            if (existing != null) return existing;
+        }
+
+        return template;
+    }
+
+    /**
+     * Get the template of a format value
+     *
+     * @param format the format value
+     * @return the template
+     */
+    public static PrintTemplate of(final Variable format) {
+        return of(text(format));
+    }
+
+    /**
+     * Get the template format
+     *
+     * @return the format
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Get the amount of placeholders
+     * of the template
+     *
+     * @return the placeholders
+     */
+    public int getPlaceholders() {
+        return placeholders.length;
+    }
+
+    /**
+     * Render the template
+     *
+     * @param values the values
+     * @return the rendered text
+     */
+    public String render(final Variable... values) {
+        return render(values, 0, null);
+    }
+
+    /**
+     * Render the template with a single value. This
+     * and the other fixed arity overloads don't
+     * allocate an array for the values
+     *
+     * @param first the first value
+     * @return the rendered text
+     */
+    public String render(final Variable first) {
+        return render(1, first, null, null, null);
+    }
+
+    /**
+     * Render the template with two values
+     *
+     * @param first the first value
+     * @param second the second value
+     * @return the rendered text
+     */
+    public String render(final Variable first, final Variable second) {
+        return render(2, first, second, null, null);
+    }
+
+    /**
+     * Render the template with three values
+     *
+     * @param first the first value
+     * @param second the second value
+     * @param third the third value
+     * @return the rendered text
+     */
+    public String render(final Variable first, final Variable second, final Variable third) {
+        return render(3, first, second, third, null);
+    }
+
+    /**
+     * Render the template with four values
+     *
+     * @param first the first value
+     * @param second the second value
+     * @param third the third value
+     * @param fourth the fourth value
+     * @return the rendered text
+     */
+    public String render(final Variable first, final Variable second, final Variable third, final Variable fourth) {
+        return render(4, first, second, third, fourth);
+    }
+
+    /**
+     * Render the template. The builder used to render
+     * the template is reused by the current thread
+     *
+     * @param values the values
+     * @param from the index of the first value
+     * @param last an additional value placed after the
+     *             values, or null
+     * @return the rendered text
+     */
+    public String render(final Variable[] values, final int from, final Variable last) {
+        StringBuilder builder = buffer.get();
+        builder.setLength(0);
+
+        render(builder, values, from, last);
+        String text = builder.toString();
+
+        if (builder.capacity() > MAX_BUFFER) {
+            buffer.set(new StringBuilder());
+        }
+
+        return text;
+    }
+
+    /**
+     * Render the template into a builder
+     *
+     * @param builder the builder
+     * @param values the values
+     * @param from the index of the first value
+     * @param last an additional value placed after the
+     *             values, or null
+     */
+    public void render(final StringBuilder builder, final Variable[] values, final int from, final Variable last) {
+        int count = Math.max(0, values.length - from) + (last == null ? 0 : 1);
+        int replaced = Math.min(count, sequence);
+
+        builder.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            int index = placeholders[i];
+            if (index < replaced) {
+                append(builder, value(values, from, last, index));
+            } else {
+                builder.append(raw[i]);
+            }
+
+            builder.append(literals[i + 1]);
+        }
+
+        for (int i = replaced; i < count; i++) {
+            append(builder, value(values, from, last, i));
+        }
+    }
+
+    private String render(final int count, final Variable first, final Variable second, final Variable third,
+                          final Variable fourth) {
+        StringBuilder builder = buffer.get();
+        builder.setLength(0);
+
+        int replaced = Math.min(count, sequence);
+        builder.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            int index = placeholders[i];
+            if (index < replaced) {
+                append(builder, value(index, first, second, third, fourth));
+            } else {
+                builder.append(raw[i]);
+            }
+
+            builder.append(literals[i + 1]);
+        }
+
+        for (int i = replaced; i < count; i++) {
+            append(builder, value(i, first, second, third, fourth));
+        }
+
+        String text = builder.toString();
+        if (builder.capacity() > MAX_BUFFER) {
+            buffer.set(new StringBuilder());
+        }
+
+        return text;
+    }
+
+    private static Variable value(final int index, final Variable first, final Variable second, final Variable third,
+                                  final Variable fourth) {
+        switch (index) {
+            case 0:
+                return first;
+            case 1:
+                return second;
+            case 2:
+                return third;
+            default:
+                return fourth;
+        }
+    }
+
+    private static Variable value(final Variable[] values, final int from, final Variable last, final int index) {
+        int position = from + index;
+        return (position < values.length ? values[position] : last);
+    }
+
+    /**
+     * Get the text of a value. Arrays are
+     * printed as the concatenation of their
+     * non-null elements
+     *
+     * @param value the value
+     * @return the value text
+     */
+    public static String text(final Variable value) {
+        Class<?> type = (Class<?>) value.getType();
+        if (!type.isArray()) return value.getString();
+
+        StringBuilder builder = new StringBuilder();
+        append(builder, value);
+
+        return builder.toString();
+    }
+
+    private static void append(final StringBuilder builder, final Variable value) {
+        Class<?> type = (Class<?>) value.getType();
+        if (!type.isArray()) {
+            builder.append(value.getString());
+            return;
+        }
+
+        Object[] array = value.getValue(Object[].class);
+        for (Object element : array) {
+            if (element instanceof Variable) {
+                Variable var = (Variable) element;
+                if (var.isNull()) {
+                    element = null;
+                } else {
+                    element = var.getValue(Object.class);
+                }
+            }
+
+            if (element != null) {
+                builder.append(element);
+            }
+        }
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    @Override
+    public String toString() {
+        return format;
+    }
+}
@@ -2,9 +2,7 @@ package es.karmadev.api.script.lang.imports.sys;
 
 import es.karmadev.api.script.body.Import;
 import es.karmadev.api.script.body.func.Function;
-
-import java.util.ArrayList;
-import java.util.List;
+import es.karmadev.api.script.body.func.FunctionIndex;
 
 /**
  * System import
@@ -22,6 +20,7 @@ public class System extends Import {
         printLn,
         exit
     };
+    private final FunctionIndex index = new FunctionIndex(functions);
 
     /**
      * Initialize the import
@@ -57,14 +56,7 @@ public class System extends Import {
      */
     @Override
     public Function[] getFunctions(final String name) {
-        List<Function> match = new ArrayList<>();
-        for (Function func : functions) {
-            if (func.getName().equals(name)) {
-                match.add(func);
-            }
-        }
-
-        return match.toArray(new Function[0]);
+        return index.getAll(name);
     }
 
     /**
@@ -76,27 +68,6 @@ public class System extends Import {
      */
     @Override
     public Function getFunction(final String name, final int parameters) {
-        Function match = null;
-        for (Function function : functions) {
-            String funcName = function.getName();
-            if (!funcName.equals(name)) continue;
-
-            int funcParams = function.getParameters();
-            if (function.isMinParameters()) {
-                if (funcParams <= parameters) {
-                    if (match == null || parameters == funcParams) {
-                        match = function;
-                    }
-
-                    continue;
-                }
-            }
-
-            if (funcParams == parameters) {
-                match = function;
-            }
-        }
-
-        return match;
+        return index.get(name, parameters);
     }
 }
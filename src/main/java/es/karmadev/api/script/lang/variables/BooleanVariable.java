@@ -0,0 +1,88 @@
+package es.karmadev.api.script.lang.variables;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+/**
+ * Represents an immutable boolean variable. There
+ * are only two instances of this variable, one for
+ * each boolean value
+ */
+public final class BooleanVariable extends Variable {
+
+    public final static BooleanVariable TRUE = new BooleanVariable(true);
+    public final static BooleanVariable FALSE = new BooleanVariable(false);
+
+    private final boolean bool;
+
+    /**
+     * Initialize the variable
+     *
+     * @param bool the variable value
+     */
+    private BooleanVariable(final boolean bool) {
+        super(FLAG_READONLY | FLAG_FINAL, Boolean.class);
+        this.bool = bool;
+    }
+
+    /**
+     * Get a variable for the boolean
+     *
+     * @param bool the boolean
+     * @return the variable
+     */
+    public static BooleanVariable valueOf(final boolean bool) {
+        return bool ? TRUE : FALSE;
+    }
+
+    /**
+     * Get if the variable is null
+     *
+     * @return if the variable is null
+     */
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    /**
+     * Get the variable value
+     *
+     * @return the value
+     */
+    @Override
+    public <T> T getValue(final Class<T> type) {
+        Boolean boxed = bool;
+        return type.isInstance(boxed) ? type.cast(boxed) : null;
+    }
+
+    /**
+     * Get the variable value as a boolean
+     *
+     * @return the boolean value
+     */
+    @Override
+    public boolean getBoolean() {
+        return bool;
+    }
+
+    /**
+     * Get the variable value as a string
+     *
+     * @return the string value
+     */
+    @Override
+    public String getString() {
+        return Boolean.toString(bool);
+    }
+
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
+    }
+}
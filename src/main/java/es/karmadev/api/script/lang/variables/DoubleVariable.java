@@ -0,0 +1,85 @@
+package es.karmadev.api.script.lang.variables;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+/**
+ * Represents an immutable decimal number
+ * variable. The value is kept as a primitive,
+ * and is only boxed if it's requested as an object
+ */
+public final class DoubleVariable extends Variable {
+
+    private final double number;
+
+    /**
+     * Initialize the variable
+     *
+     * @param number the variable value
+     */
+    public DoubleVariable(final double number) {
+        super(FLAG_READONLY | FLAG_FINAL, Number.class);
+        this.number = number;
+    }
+
+    /**
+     * Get if the variable is null
+     *
+     * @return if the variable is null
+     */
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    /**
+     * Get the variable value
+     *
+     * @return the value
+     */
+    @Override
+    public <T> T getValue(final Class<T> type) {
+        Double boxed = number;
+        return type.isInstance(boxed) ? type.cast(boxed) : null;
+    }
+
+    /**
+     * Get the variable value as a long
+     *
+     * @return the long value
+     */
+    @Override
+    public long getLong() {
+        return (long) number;
+    }
+
+    /**
+     * Get the variable value as a double
+     *
+     * @return the double value
+     */
+    @Override
+    public double getDouble() {
+        return number;
+    }
+
+    /**
+     * Get the variable value as a string
+     *
+     * @return the string value
+     */
+    @Override
+    public String getString() {
+        return Double.toString(number);
+    }
+
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
+    }
+}
@@ -0,0 +1,110 @@
+package es.karmadev.api.script.lang.variables;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+/**
+ * Represents an immutable integer number
+ * variable. The value is kept as a primitive,
+ * and is only boxed if it's requested as an object
+ */
+public final class LongVariable extends Variable {
+
+    private final static int CACHE_LOW = -128;
+    private final static int CACHE_HIGH = 1024;
+    private final static LongVariable[] cache = new LongVariable[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new LongVariable(CACHE_LOW + i);
+        }
+    }
+
+    private final long number;
+
+    /**
+     * Initialize the variable
+     *
+     * @param number the variable value
+     */
+    private LongVariable(final long number) {
+        super(FLAG_READONLY | FLAG_FINAL, Number.class);
+        this.number = number;
+    }
+
+    /**
+     * Get a variable for the number. Small
+     * numbers are cached and shared
+     *
+     * @param number the number
+     * @return the variable
+     */
+    public static LongVariable valueOf(final long number) {
+        if (number >= CACHE_LOW && number <= CACHE_HIGH) {
+            return cache[(int) number - CACHE_LOW];
+        }
+
+        return new LongVariable(number);
+    }
+
+    /**
+     * Get if the variable is null
+     *
+     * @return if the variable is null
+     */
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    /**
+     * Get the variable value
+     *
+     * @return the value
+     */
+    @Override
+    public <T> T getValue(final Class<T> type) {
+        Long boxed = number;
+        return type.isInstance(boxed) ? type.cast(boxed) : null;
+    }
+
+    /**
+     * Get the variable value as a long
+     *
+     * @return the long value
+     */
+    @Override
+    public long getLong() {
+        return number;
+    }
+
+    /**
+     * Get the variable value as a double
+     *
+     * @return the double value
+     */
+    @Override
+    public double getDouble() {
+        return number;
+    }
+
+    /**
+     * Get the variable value as a string
+     *
+     * @return the string value
+     */
+    @Override
+    public String getString() {
+        return Long.toString(number);
+    }
+
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
+    }
+}
@@ -0,0 +1,42 @@
+package es.karmadev.api.script.lang.variables;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+/**
+ * Represents an immutable variable which
+ * wraps any other object
+ */
+public final class ObjectVariable extends Variable {
+
+    /**
+     * Initialize the variable
+     *
+     * @param value the variable value
+     * @param type the variable type
+     */
+    public <T> ObjectVariable(final T value, final Class<T> type) {
+        super(FLAG_READONLY | FLAG_FINAL, type);
+        this.value = value;
+    }
+
+    /**
+     * Get if the variable is null
+     *
+     * @return if the variable is null
+     */
+    @Override
+    public boolean isNull() {
+        return value == null;
+    }
+
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
+    }
+}
@@ -0,0 +1,62 @@
+package es.karmadev.api.script.lang.variables;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.exception.body.ScriptWorkException;
+
+/**
+ * Represents an immutable string variable
+ */
+public final class StringVariable extends Variable {
+
+    private final String string;
+
+    /**
+     * Initialize the variable
+     *
+     * @param string the variable value
+     */
+    public StringVariable(final String string) {
+        super(FLAG_READONLY | FLAG_FINAL, String.class);
+        this.string = string;
+    }
+
+    /**
+     * Get if the variable is null
+     *
+     * @return if the variable is null
+     */
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    /**
+     * Get the variable value
+     *
+     * @return the value
+     */
+    @Override
+    public <T> T getValue(final Class<T> type) {
+        return type.isInstance(string) ? type.cast(string) : null;
+    }
+
+    /**
+     * Get the variable value as a string
+     *
+     * @return the string value
+     */
+    @Override
+    public String getString() {
+        return string;
+    }
+
+    /**
+     * Set a variable value
+     *
+     * @param value the new value
+     */
+    @Override
+    public <T> void setValue(final T value) {
+        throw new ScriptWorkException("Cannot assign " + value + " to readonly variable " + getName());
+    }
+}
@@ -0,0 +1,122 @@
+package es.karmadev.api.script.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a UTF-8 encoded source which is read
+ * directly from a byte buffer, without decoding it.
+ * The script syntax is pure ASCII, so ASCII bytes are
+ * read as they are, and every other byte is read as
+ * {@link #NON_ASCII}, which is never part of the syntax.
+ * The bytes are only decoded when a sub sequence is
+ * turned into a string
+ */
+public final class ByteSequence implements CharSequence {
+
+    /**
+     * The character non ASCII bytes are read as
+     */
+    public final static char NON_ASCII = '\uFFFD';
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Initialize the byte sequence. A leading UTF-8
+     * byte order mark is skipped
+     *
+     * @param buffer the buffer to read from
+     */
+    public ByteSequence(final ByteBuffer buffer) {
+        int start = buffer.position();
+        int size = buffer.remaining();
+        if (size >= 3 && buffer.get(start) == (byte) 0xEF && buffer.get(start + 1) == (byte) 0xBB &&
+                buffer.get(start + 2) == (byte) 0xBF) {
+            start += 3;
+            size -= 3;
+        }
+
+        this.buffer = buffer;
+        this.offset = start;
+        this.length = size;
+    }
+
+    private ByteSequence(final ByteBuffer buffer, final int offset, final int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Get the sequence length
+     *
+     * @return the length in bytes
+     */
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Get a character
+     *
+     * @param index the character index
+     * @return the character
+     */
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) throw new IndexOutOfBoundsException(String.valueOf(index));
+
+        byte value = buffer.get(offset + index);
+        return value >= 0 ? (char) value : NON_ASCII;
+    }
+
+    /**
+     * Get a sub sequence. The sub sequence is a
+     * view of the same buffer
+     *
+     * @param start the sub sequence start
+     * @param end the sub sequence end
+     * @return the sub sequence
+     */
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("[" + start + ", " + end + ")");
+        }
+
+        return new ByteSequence(buffer, offset + start, end - start);
+    }
+
+    /**
+     * Get the bytes of the sequence
+     *
+     * @return a read only view of the
+     * sequence bytes
+     */
+    public ByteBuffer asBuffer() {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.limit(offset + length);
+        view.position(offset);
+
+        return view;
+    }
+
+    /**
+     * Decode the sequence
+     *
+     * @return the decoded sequence
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
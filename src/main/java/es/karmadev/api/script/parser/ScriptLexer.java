@@ -0,0 +1,376 @@
+package es.karmadev.api.script.parser;
+
+/**
+ * Script lexer. The lexer reads the script source
+ * character by character, and produces tokens on
+ * demand. Spaces are skipped, and comments are skipped
+ * wherever they are. A comment which spans multiple lines
+ * is read as a line break
+ */
+public final class ScriptLexer {
+
+    private final CharSequence source;
+    private final int end;
+
+    private int position;
+    private int line;
+    private int lineStart;
+
+    private Token peeked;
+
+    /**
+     * Initialize the lexer
+     *
+     * @param source the source to read
+     */
+    public ScriptLexer(final CharSequence source) {
+        this(source, 0, source.length(), 1, 0);
+    }
+
+    /**
+     * Initialize the lexer
+     *
+     * @param source the source to read
+     * @param start the offset to start reading at
+     * @param end the offset to stop reading at
+     * @param line the line at the start offset
+     * @param lineStart the offset of the start of
+     *                  the line
+     */
+    public ScriptLexer(final CharSequence source, final int start, final int end, final int line, final int lineStart) {
+        this.source = source;
+        this.position = start;
+        this.end = end;
+        this.line = line;
+        this.lineStart = lineStart;
+    }
+
+    /**
+     * Get the lexer source
+     *
+     * @return the source
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Get the offset the lexer
+     * stops reading at
+     *
+     * @return the end offset
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the next token without
+     * consuming it
+     *
+     * @return the next token
+     */
+    public Token peek() {
+        if (peeked == null) {
+            peeked = read();
+        }
+
+        return peeked;
+    }
+
+    /**
+     * Consume the next token
+     *
+     * @return the next token
+     */
+    public Token next() {
+        Token token = peek();
+        peeked = null;
+
+        return token;
+    }
+
+    /**
+     * Get the current offset. If a token has
+     * been peeked, the offset is the peeked token
+     * start
+     *
+     * @return the current offset
+     */
+    public int getPosition() {
+        return peeked == null ? position : peeked.getStart();
+    }
+
+    /**
+     * Get the current line
+     *
+     * @return the current line
+     */
+    public int getLine() {
+        return peeked == null ? line : peeked.getLine();
+    }
+
+    /**
+     * Create a lexer which reads from the current
+     * offset of this lexer until the specified offset.
+     * The created lexer keeps the line information of
+     * this lexer, and does not share its state
+     *
+     * @param end the offset to stop reading at
+     * @return the lexer
+     */
+    public ScriptLexer fork(final int end) {
+        if (peeked != null) {
+            return new ScriptLexer(source, peeked.getStart(), end, peeked.getLine(),
+                    peeked.getStart() - (peeked.getColumn() - 1));
+        }
+
+        return new ScriptLexer(source, position, end, line, lineStart);
+    }
+
+    /**
+     * Consume the rest of the current line as
+     * raw text. Leading and trailing spaces are not
+     * part of the text, and the line break is not consumed
+     *
+     * @return the rest of the line
+     */
+    public String restOfLine() {
+        if (peeked != null) {
+            if (peeked.is(TokenType.NEWLINE) || peeked.is(TokenType.EOF)) return "";
+
+            position = peeked.getStart();
+            peeked = null;
+        }
+
+        skipSpaces();
+        int start = position;
+        while (position < end) {
+            char character = source.charAt(position);
+            if (character == '\n' || character == '\r') break;
+
+            position++;
+        }
+
+        int last = position;
+        while (last > start && isSpace(source.charAt(last - 1))) {
+            last--;
+        }
+
+        return source.subSequence(start, last).toString();
+    }
+
+    /**
+     * Get the offset of the start of
+     * the line a token is in
+     *
+     * @param token the token
+     * @return the token line start offset
+     */
+    public int lineStartOf(final Token token) {
+        return token.getStart() - (token.getColumn() - 1);
+    }
+
+    /**
+     * Get the full text of the line a
+     * token is in
+     *
+     * @param token the token
+     * @return the token line text
+     */
+    public String lineOf(final Token token) {
+        return lineAt(source, lineStartOf(token));
+    }
+
+    /**
+     * Get the text of a source line
+     *
+     * @param source the source
+     * @param offset the line start offset
+     * @return the line text, without leading
+     * and trailing spaces
+     */
+    public static String lineAt(final CharSequence source, final int offset) {
+        int finish = offset;
+        while (finish < source.length()) {
+            char character = source.charAt(finish);
+            if (character == '\n' || character == '\r') break;
+
+            finish++;
+        }
+
+        return source.subSequence(offset, finish).toString().trim();
+    }
+
+    private Token read() {
+        boolean lineBreak = skipIgnored();
+
+        int start = position;
+        int tokenLine = line;
+        int column = position - lineStart + 1;
+        if (lineBreak) {
+            return new Token(TokenType.NEWLINE, source, start, start, tokenLine, column);
+        }
+
+        if (position >= end) {
+            return new Token(TokenType.EOF, source, end, end, tokenLine, column);
+        }
+
+        char character = source.charAt(position);
+        switch (character) {
+            case '\r':
+                position++;
+                if (position < end && source.charAt(position) == '\n') position++;
+                newLine();
+                return new Token(TokenType.NEWLINE, source, start, position, tokenLine, column);
+            case '\n':
+                position++;
+                newLine();
+                return new Token(TokenType.NEWLINE, source, start, position, tokenLine, column);
+            case '#':
+                return single(TokenType.HASH, start, tokenLine, column);
+            case ',':
+                return single(TokenType.COMMA, start, tokenLine, column);
+            case '(':
+                return single(TokenType.LEFT_PAREN, start, tokenLine, column);
+            case ')':
+                return single(TokenType.RIGHT_PAREN, start, tokenLine, column);
+            case '[':
+                return single(TokenType.LEFT_BRACKET, start, tokenLine, column);
+            case ']':
+                return single(TokenType.RIGHT_BRACKET, start, tokenLine, column);
+            case '{':
+                return single(TokenType.LEFT_BRACE, start, tokenLine, column);
+            case '}':
+                return single(TokenType.RIGHT_BRACE, start, tokenLine, column);
+            case ':':
+                if (position + 1 < end && source.charAt(position + 1) == ':') {
+                    position += 2;
+                    return new Token(TokenType.DOUBLE_COLON, source, start, position, tokenLine, column);
+                }
+
+                return single(TokenType.COLON, start, tokenLine, column);
+            case '"':
+            case '\'':
+                return string(character, start, tokenLine, column);
+            default:
+                break;
+        }
+
+        if (isDigit(character) || ((character == '-' || character == '+' || character == '.') &&
+                position + 1 < end && isDigit(source.charAt(position + 1)))) {
+            position++;
+            while (position < end) {
+                char next = source.charAt(position);
+                if (isWord(next) || next == '.') {
+                    position++;
+                    continue;
+                }
+                if ((next == '-' || next == '+') && isExponent(source.charAt(position - 1))) {
+                    position++;
+                    continue;
+                }
+
+                break;
+            }
+
+            return new Token(TokenType.NUMBER, source, start, position, tokenLine, column);
+        }
+
+        if (isWord(character)) {
+            while (position < end && isWord(source.charAt(position))) {
+                position++;
+            }
+
+            return new Token(TokenType.IDENTIFIER, source, start, position, tokenLine, column);
+        }
+
+        return single(TokenType.UNKNOWN, start, tokenLine, column);
+    }
+
+    private Token single(final TokenType type, final int start, final int line, final int column) {
+        position++;
+        return new Token(type, source, start, position, line, column);
+    }
+
+    private Token string(final char quote, final int start, final int line, final int column) {
+        boolean escape = false;
+
+        position++;
+        while (position < end) {
+            char character = source.charAt(position);
+            if (character == '\n' || character == '\r') break;
+
+            position++;
+            if (character == quote && !escape) {
+                break;
+            }
+
+            escape = character == '\\' && !escape;
+        }
+
+        return new Token(TokenType.STRING, source, start, position, line, column);
+    }
+
+    /**
+     * Skip spaces and comments
+     *
+     * @return if a comment which contained a line
+     * break has been skipped
+     */
+    private boolean skipIgnored() {
+        boolean lineBreak = false;
+        while (true) {
+            skipSpaces();
+            if (position + 1 < end && source.charAt(position) == '/' && source.charAt(position + 1) == '*') {
+                position += 2;
+                while (position < end) {
+                    char character = source.charAt(position);
+                    if (character == '*' && position + 1 < end && source.charAt(position + 1) == '/') {
+                        position += 2;
+                        break;
+                    }
+
+                    position++;
+                    if (character == '\n' || (character == '\r' && (position >= end || source.charAt(position) != '\n'))) {
+                        lineBreak = true;
+                        newLine();
+                    }
+                }
+
+                continue;
+            }
+
+            return lineBreak;
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < end && isSpace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void newLine() {
+        line++;
+        lineStart = position;
+    }
+
+    private static boolean isSpace(final char character) {
+        return character == ' ' || character == '\t' || character == '\f' || character == '\u00A0' ||
+                character == '\uFEFF';
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isExponent(final char character) {
+        return character == 'e' || character == 'E';
+    }
+
+    private static boolean isWord(final char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') ||
+                isDigit(character) || character == '_';
+    }
+}
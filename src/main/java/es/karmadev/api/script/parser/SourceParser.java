@@ -0,0 +1,320 @@
+package es.karmadev.api.script.parser;
+
+import es.karmadev.api.array.ArrayUtils;
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.body.instruction.ConstantPool;
+import es.karmadev.api.script.body.instruction.FrameLayout;
+import es.karmadev.api.script.body.instruction.Instruction;
+import es.karmadev.api.script.body.instruction.MethodCompiler;
+import es.karmadev.api.script.exception.InvalidSchemaVersion;
+import es.karmadev.api.script.exception.InvalidSyntaxException;
+import es.karmadev.api.script.exception.ScriptException;
+import es.karmadev.api.script.exception.ScriptInitializationException;
+import es.karmadev.api.script.exception.body.NoSuchImportException;
+import es.karmadev.api.script.lang.imports.ImportRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Source parser. The source parser is a recursive
+ * descent parser which reads the tokens of a {@link ScriptLexer}
+ * in a single pass, and builds the script body from them
+ * <pre>
+ * script    := schema (import | method)*
+ * schema    := ["this"] ":" "schema" NUMBER
+ * import    := ["this"] "#" "def" "[" IDENTIFIER "]"
+ * method    := IDENTIFIER "(" [parameter ("," parameter)*] ")" "{" body "}"
+ * parameter := IDENTIFIER ["::"]
+ * </pre>
+ * The method body grammar is defined by {@link MethodCompiler}
+ */
+public final class SourceParser {
+
+    private final static String[] PROTECTED_WORDS = {
+            "while",
+            "if",
+            "or",
+            "switch",
+            "exit",
+            "return",
+            "void",
+            "string",
+            "byte",
+            "short",
+            "int",
+            "long",
+            "float",
+            "double",
+            "bool",
+            "is",
+            "type",
+            "this",
+            "echo"
+    };
+
+    private final String name;
+    private final ScriptLexer lexer;
+    private final ImportRegistry imports;
+    private final ConstantPool pool = new ConstantPool();
+    private final Set<String> declared = new HashSet<>();
+    private final boolean lazy;
+
+    /**
+     * Initialize the parser
+     *
+     * @param name the script name
+     * @param source the script source
+     * @param imports the imports the script can define
+     */
+    public SourceParser(final String name, final CharSequence source, final Collection<Import> imports) {
+        this(name, source, imports, false);
+    }
+
+    /**
+     * Initialize the parser. If the parser is lazy,
+     * the method bodies are only skimmed to find their
+     * boundaries, and are compiled the first time the
+     * method is called
+     *
+     * @param name the script name
+     * @param source the script source
+     * @param imports the imports the script can define
+     * @param lazy if the method bodies should be
+     *             compiled on demand
+     */
+    public SourceParser(final String name, final CharSequence source, final Collection<Import> imports, final boolean lazy) {
+        this(name, source, ImportRegistry.of(imports), lazy);
+    }
+
+    /**
+     * Initialize the parser. If the parser is lazy,
+     * the method bodies are only skimmed to find their
+     * boundaries, and are compiled the first time the
+     * method is called
+     *
+     * @param name the script name
+     * @param source the script source
+     * @param imports the registry of the imports the
+     *                script can define
+     * @param lazy if the method bodies should be
+     *             compiled on demand
+     */
+    public SourceParser(final String name, final CharSequence source, final ImportRegistry imports, final boolean lazy) {
+        this.name = name;
+        this.lazy = lazy;
+        this.lexer = new ScriptLexer(source);
+        this.imports = imports;
+    }
+
+    /**
+     * Parse the script
+     *
+     * @return the script body
+     * @throws ScriptException if the script is not valid
+     */
+    public ScriptBody parse() throws ScriptException {
+        int version = schema();
+
+        Set<Import> imports = new LinkedHashSet<>();
+        List<ScriptMethod> methods = new ArrayList<>();
+
+        boolean importing = true;
+        while (true) {
+            Token token = lexer.next();
+            if (token.is(TokenType.NEWLINE)) continue;
+            if (token.is(TokenType.EOF)) break;
+
+            if (token.is(TokenType.HASH) || (token.isIdentifier("this") && lexer.peek().is(TokenType.HASH))) {
+                if (!importing) {
+                    throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), "Cannot import out of import area");
+                }
+
+                importDefinition(token, imports);
+                continue;
+            }
+
+            if (token.isIdentifier("exit") || token.isIdentifier("echo")) {
+                throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), "Statement out of method body");
+            }
+
+            if (token.is(TokenType.IDENTIFIER) && lexer.peek().is(TokenType.LEFT_PAREN)) {
+                importing = false;
+                methods.add(method(token));
+                continue;
+            }
+
+            throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), "Unexpected " + token.getText());
+        }
+
+        if (methods.stream().noneMatch((method) -> method.getName().equals("main") && method.getParameters() == 0)) {
+            throw new ScriptInitializationException("Missing main method on script body");
+        }
+
+        return new ScriptBody(version, imports, methods);
+    }
+
+    private int schema() throws ScriptException {
+        Token token = lexer.next();
+        while (token.is(TokenType.NEWLINE)) {
+            token = lexer.next();
+        }
+        if (token.is(TokenType.EOF)) throw new InvalidSchemaVersion();
+
+        Token first = token;
+        if (token.isIdentifier("this")) {
+            token = lexer.next();
+        }
+
+        Token keyword = lexer.peek();
+        if (token.is(TokenType.COLON) && keyword.is(TokenType.IDENTIFIER) && keyword.getText().equalsIgnoreCase("schema")) {
+            lexer.next();
+
+            Token version = lexer.next();
+            Token end = lexer.peek();
+            if (version.is(TokenType.NUMBER) && version.getStart() > keyword.getEnd() &&
+                    (end.is(TokenType.NEWLINE) || end.is(TokenType.EOF))) {
+                try {
+                    return Integer.parseInt(version.getText());
+                } catch (NumberFormatException ignored) {}
+            }
+
+            throw new InvalidSchemaVersion(lexer.lineOf(first).replaceFirst("(?i)(this)?:schema", "").trim());
+        }
+
+        throw new InvalidSchemaVersion();
+    }
+
+    private void importDefinition(final Token start, final Set<Import> imports) throws ScriptException {
+        if (!start.is(TokenType.HASH)) lexer.next();
+
+        Token def = lexer.next();
+        if (!def.is(TokenType.IDENTIFIER) || !def.getText().equalsIgnoreCase("def")) {
+            throw new InvalidSyntaxException(lexer.lineOf(start), start.getLine(), def.getColumn(), "Expected def");
+        }
+
+        expect(TokenType.LEFT_BRACKET, "Expected [");
+        Token nameToken = expect(TokenType.IDENTIFIER, "Expected import name");
+        expect(TokenType.RIGHT_BRACKET, "Expected ]");
+        endOfLine();
+
+        String importName = nameToken.getText();
+        if (ArrayUtils.containsAny(PROTECTED_WORDS, importName)) {
+            throw new InvalidSyntaxException(lexer.lineOf(start), start.getLine(), "Protected import name (\"" + importName + "\")");
+        }
+
+        Import imp;
+        try {
+            imp = this.imports.get(importName);
+        } catch (IllegalArgumentException ex) {
+            throw new ScriptInitializationException("Failed to create import " + importName + " (" + ex.getMessage() + ")");
+        }
+        if (imp == null) {
+            throw new NoSuchImportException(importName);
+        }
+
+        declared.add(importName);
+        if (!imports.add(imp)) {
+            java.lang.System.out.println("[WARN] Duplicated import for " + importName + " at script " + name + " (" +
+                    lexer.lineOf(start) + ":" + start.getLine() + ")");
+        }
+    }
+
+    private ScriptMethod method(final Token nameToken) throws ScriptException {
+        String line = lexer.lineOf(nameToken);
+        lexer.next();
+
+        List<String> parameters = new ArrayList<>();
+        boolean multi = false;
+        if (lexer.peek().is(TokenType.RIGHT_PAREN)) {
+            lexer.next();
+        } else {
+            while (true) {
+                Token parameter = expect(TokenType.IDENTIFIER, "Expected parameter name");
+                if (multi) {
+                    throw new InvalidSyntaxException(line, parameter.getLine(), "Multiple parameters modifier is only supported for one parameter");
+                }
+
+                String parameterName = parameter.getText();
+                if (lexer.peek().is(TokenType.DOUBLE_COLON)) {
+                    lexer.next();
+
+                    multi = true;
+                    parameterName += "::";
+                }
+                parameters.add(parameterName);
+
+                Token separator = lexer.next();
+                if (separator.is(TokenType.RIGHT_PAREN)) break;
+                if (!separator.is(TokenType.COMMA)) {
+                    throw new InvalidSyntaxException(line, separator.getLine(), separator.getColumn(), "Expected , or )");
+                }
+            }
+        }
+
+        expect(TokenType.LEFT_BRACE, "Expected {");
+        lexer.restOfLine();
+
+        int start = lexer.getPosition();
+        String[] params = parameters.toArray(new String[0]);
+        CharSequence source = lexer.getSource();
+
+        if (lazy) {
+            ScriptLexer mark = lexer.fork(source.length());
+            int end = MethodCompiler.skip(lexer);
+
+            ScriptLexer body = mark.fork(end);
+            int contentStart = trimStart(source, start, end);
+            return new ScriptMethod(nameToken.getText(), source, contentStart, trimEnd(source, contentStart, end),
+                    body, pool, declared, params);
+        }
+
+        FrameLayout layout = new FrameLayout(params);
+        Instruction[] instructions = MethodCompiler.compile(lexer, layout, pool, declared, true);
+        int end = lexer.getPosition() - 1;
+
+        int contentStart = trimStart(source, start, end);
+        return new ScriptMethod(nameToken.getText(), source, contentStart, trimEnd(source, contentStart, end),
+                layout, instructions, params);
+    }
+
+    private static int trimStart(final CharSequence source, final int start, final int end) {
+        int offset = start;
+        while (offset < end && (source.charAt(offset) == '\n' || source.charAt(offset) == '\r')) {
+            offset++;
+        }
+
+        return offset;
+    }
+
+    private static int trimEnd(final CharSequence source, final int start, final int end) {
+        int offset = end;
+        while (offset > start && Character.isWhitespace(source.charAt(offset - 1))) {
+            offset--;
+        }
+
+        return offset;
+    }
+
+    private void endOfLine() throws InvalidSyntaxException {
+        Token token = lexer.peek();
+        if (token.is(TokenType.NEWLINE) || token.is(TokenType.EOF)) return;
+
+        throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), "Expected end of line");
+    }
+
+    private Token expect(final TokenType type, final String info) throws InvalidSyntaxException {
+        Token token = lexer.next();
+        if (!token.is(type)) {
+            throw new InvalidSyntaxException(lexer.lineOf(token), token.getLine(), token.getColumn(), info);
+        }
+
+        return token;
+    }
+}
@@ -0,0 +1,122 @@
+package es.karmadev.api.script.parser;
+
+/**
+ * Represents a script token. The token only
+ * keeps its position in the source, its text is
+ * copied only if it's requested
+ */
+public final class Token {
+
+    private final TokenType type;
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    private final int line;
+    private final int column;
+
+    /**
+     * Initialize the token
+     *
+     * @param type the token type
+     * @param source the token source
+     * @param start the token start offset
+     * @param end the token end offset
+     * @param line the token line
+     * @param column the token column
+     */
+    public Token(final TokenType type, final CharSequence source, final int start, final int end,
+                 final int line, final int column) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Get the token type
+     *
+     * @return the token type
+     */
+    public TokenType getType() {
+        return type;
+    }
+
+    /**
+     * Get if the token is of the
+     * specified type
+     *
+     * @param type the type
+     * @return if the token is of the type
+     */
+    public boolean is(final TokenType type) {
+        return this.type == type;
+    }
+
+    /**
+     * Get if the token is the specified
+     * identifier
+     *
+     * @param identifier the identifier
+     * @return if the token is the identifier
+     */
+    public boolean isIdentifier(final String identifier) {
+        if (type != TokenType.IDENTIFIER || end - start != identifier.length()) return false;
+        for (int i = 0; i < identifier.length(); i++) {
+            if (source.charAt(start + i) != identifier.charAt(i)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the token text
+     *
+     * @return the token text
+     */
+    public String getText() {
+        return source.subSequence(start, end).toString();
+    }
+
+    /**
+     * Get the token start offset
+     *
+     * @return the start offset
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the token end offset
+     *
+     * @return the end offset
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the token line
+     *
+     * @return the line, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Get the token column
+     *
+     * @return the column, starting at 1
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + (type == TokenType.EOF ? "" : getText()) + ")@" + line + ":" + column;
+    }
+}
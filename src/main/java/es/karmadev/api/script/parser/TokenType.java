@@ -0,0 +1,23 @@
+package es.karmadev.api.script.parser;
+
+/**
+ * Represents a token type
+ */
+public enum TokenType {
+    IDENTIFIER,
+    NUMBER,
+    STRING,
+    HASH,
+    COLON,
+    DOUBLE_COLON,
+    COMMA,
+    LEFT_PAREN,
+    RIGHT_PAREN,
+    LEFT_BRACKET,
+    RIGHT_BRACKET,
+    LEFT_BRACE,
+    RIGHT_BRACE,
+    UNKNOWN,
+    NEWLINE,
+    EOF
+}
@@ -0,0 +1,67 @@
+package es.karmadev.api.script.source;
+
+import es.karmadev.api.script.parser.ByteSequence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents the source of an UTF-8
+ * encoded buffer
+ */
+final class BufferSource implements ScriptSource {
+
+    private final String name;
+    private final ByteBuffer buffer;
+
+    /**
+     * Initialize the source
+     *
+     * @param name the source name
+     * @param buffer the script buffer
+     */
+    BufferSource(final String name, final ByteBuffer buffer) {
+        this.name = name;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Get the source name
+     *
+     * @return the source name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Read the buffer
+     *
+     * @param view if the buffer is read as
+     *             a view instead of being decoded
+     * @return the source
+     */
+    @Override
+    public CharSequence read(final boolean view) {
+        return decode(buffer, view);
+    }
+
+    /**
+     * Read the remaining bytes of a buffer
+     *
+     * @param buffer the buffer to read
+     * @param view if the buffer is read as
+     *             a view instead of being decoded
+     * @return the source
+     */
+    static CharSequence decode(final ByteBuffer buffer, final boolean view) {
+        if (view) return new ByteSequence(buffer.duplicate());
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(),
+                    StandardCharsets.UTF_8);
+        }
+
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+}
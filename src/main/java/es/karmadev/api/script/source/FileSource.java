@@ -0,0 +1,57 @@
+package es.karmadev.api.script.source;
+
+import es.karmadev.api.script.parser.ByteSequence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents the source of a script file
+ */
+final class FileSource implements ScriptSource {
+
+    private final Path file;
+
+    /**
+     * Initialize the source
+     *
+     * @param file the script file
+     */
+    FileSource(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the source name
+     *
+     * @return the file path
+     */
+    @Override
+    public String getName() {
+        return file.toString();
+    }
+
+    /**
+     * Read the file. When read as a view, the
+     * file is memory mapped instead of being read
+     * into the heap
+     *
+     * @param view if the file is read as a view
+     * @return the source
+     * @throws IOException if the file fails to read
+     */
+    @Override
+    public CharSequence read(final boolean view) throws IOException {
+        if (view) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new ByteSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
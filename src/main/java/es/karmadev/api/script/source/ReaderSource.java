@@ -0,0 +1,67 @@
+package es.karmadev.api.script.source;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Represents the source of a reader. The reader
+ * is read directly into the builder which is parsed,
+ * so the characters are never copied once read
+ */
+final class ReaderSource implements ScriptSource {
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final String name;
+    private final Reader reader;
+
+    private StringBuilder text;
+
+    /**
+     * Initialize the source
+     *
+     * @param name the source name
+     * @param reader the script reader
+     */
+    ReaderSource(final String name, final Reader reader) {
+        this.name = name;
+        this.reader = reader;
+    }
+
+    /**
+     * Get the source name
+     *
+     * @return the source name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Read the reader. The reader is only read
+     * the first time, and the read text is kept
+     *
+     * @param view ignored, the characters are
+     *             already decoded
+     * @return the source
+     * @throws IOException if the reader fails to read
+     */
+    @Override
+    public synchronized CharSequence read(final boolean view) throws IOException {
+        if (text == null) {
+            StringBuilder builder = new StringBuilder(BUFFER_SIZE);
+            char[] chunk = new char[BUFFER_SIZE];
+            try (Reader input = reader) {
+                int read;
+                while ((read = input.read(chunk)) != -1) {
+                    builder.append(chunk, 0, read);
+                }
+            }
+
+            text = builder;
+        }
+
+        return text;
+    }
+}
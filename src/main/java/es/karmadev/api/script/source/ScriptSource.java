@@ -0,0 +1,130 @@
+package es.karmadev.api.script.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Represents the source of a script. Sources are read
+ * directly into the source the parser tokenizes, so scripts
+ * stored in memory, a database or a jar can be parsed without
+ * writing them to a file first.
+ * <p>
+ * Byte sources must be UTF-8 encoded. Sources which can only be
+ * read once, such as streams and readers, are read the first time
+ * the source is read, and the read source is kept for later reads
+ */
+public interface ScriptSource {
+
+    /**
+     * Get the source name, which
+     * is used in error messages
+     *
+     * @return the source name
+     */
+    String getName();
+
+    /**
+     * Read the source
+     *
+     * @param view if the bytes of a byte source can
+     *             be read through a {@link es.karmadev.api.script.parser.ByteSequence}
+     *             view instead of being decoded. A file is memory
+     *             mapped when read as a view
+     * @return the source
+     * @throws IOException if the source fails to read
+     */
+    CharSequence read(final boolean view) throws IOException;
+
+    /**
+     * Create the source of a script file
+     *
+     * @param file the script file
+     * @return the source
+     */
+    static ScriptSource of(final Path file) {
+        return new FileSource(file);
+    }
+
+    /**
+     * Create the source of a script text. The
+     * text is parsed as it is, without being copied
+     *
+     * @param name the source name
+     * @param text the script text
+     * @return the source
+     */
+    static ScriptSource of(final String name, final CharSequence text) {
+        return new TextSource(name, text);
+    }
+
+    /**
+     * Create the source of an UTF-8 encoded buffer. The
+     * source is the remaining bytes of the buffer, and the
+     * buffer position is not modified
+     *
+     * @param name the source name
+     * @param buffer the script buffer
+     * @return the source
+     */
+    static ScriptSource of(final String name, final ByteBuffer buffer) {
+        return new BufferSource(name, buffer.duplicate());
+    }
+
+    /**
+     * Create the source of an UTF-8 encoded stream. The
+     * stream is read until its end, and closed, the first
+     * time the source is read
+     *
+     * @param name the source name
+     * @param stream the script stream
+     * @return the source
+     */
+    static ScriptSource of(final String name, final InputStream stream) {
+        return new StreamSource(name, () -> stream);
+    }
+
+    /**
+     * Create the source of a reader. The reader is
+     * read until its end, and closed, the first time
+     * the source is read
+     *
+     * @param name the source name
+     * @param reader the script reader
+     * @return the source
+     */
+    static ScriptSource of(final String name, final Reader reader) {
+        return new ReaderSource(name, reader);
+    }
+
+    /**
+     * Create the source of a class path resource
+     *
+     * @param resource the resource name
+     * @return the source
+     */
+    static ScriptSource resource(final String resource) {
+        return resource(Thread.currentThread().getContextClassLoader(), resource);
+    }
+
+    /**
+     * Create the source of a class path resource
+     *
+     * @param loader the class loader to find the
+     *               resource with, or null to use the
+     *               system class loader
+     * @param resource the resource name
+     * @return the source
+     */
+    static ScriptSource resource(final ClassLoader loader, final String resource) {
+        return new StreamSource(resource, () -> {
+            InputStream stream = (loader == null ? ClassLoader.getSystemResourceAsStream(resource) :
+                    loader.getResourceAsStream(resource));
+            if (stream == null) throw new IOException("Resource not found: " + resource);
+
+            return stream;
+        });
+    }
+}
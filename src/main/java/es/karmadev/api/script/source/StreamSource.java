@@ -0,0 +1,98 @@
+package es.karmadev.api.script.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents the source of an UTF-8 encoded stream.
+ * The stream is read directly into a buffer which grows
+ * as required, and the buffer is decoded or read as a view
+ * in place, so the bytes are never copied once read
+ */
+final class StreamSource implements ScriptSource {
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final String name;
+    private final Opener opener;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Initialize the source
+     *
+     * @param name the source name
+     * @param opener the opener of the stream
+     */
+    StreamSource(final String name, final Opener opener) {
+        this.name = name;
+        this.opener = opener;
+    }
+
+    /**
+     * Get the source name
+     *
+     * @return the source name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Read the stream. The stream is only read
+     * the first time, and the read bytes are kept
+     *
+     * @param view if the bytes are read as a
+     *             view instead of being decoded
+     * @return the source
+     * @throws IOException if the stream fails to read
+     */
+    @Override
+    public synchronized CharSequence read(final boolean view) throws IOException {
+        if (buffer == null) {
+            try (InputStream stream = opener.open()) {
+                buffer = readFully(stream);
+            }
+        }
+
+        return BufferSource.decode(buffer, view);
+    }
+
+    private static ByteBuffer readFully(final InputStream stream) throws IOException {
+        byte[] bytes = new byte[Math.max(stream.available(), BUFFER_SIZE)];
+        int length = 0;
+
+        int read;
+        while ((read = stream.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+            if (length == bytes.length) {
+                int next = stream.read();
+                if (next == -1) break;
+
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                bytes[length++] = (byte) next;
+            }
+        }
+
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+
+    /**
+     * Opens the stream of a source
+     */
+    @FunctionalInterface
+    interface Opener {
+
+        /**
+         * Open the stream
+         *
+         * @return the stream
+         * @throws IOException if the stream
+         * fails to open
+         */
+        InputStream open() throws IOException;
+    }
+}
@@ -0,0 +1,43 @@
+package es.karmadev.api.script.source;
+
+/**
+ * Represents the source of a script text
+ */
+final class TextSource implements ScriptSource {
+
+    private final String name;
+    private final CharSequence text;
+
+    /**
+     * Initialize the source
+     *
+     * @param name the source name
+     * @param text the script text
+     */
+    TextSource(final String name, final CharSequence text) {
+        this.name = name;
+        this.text = text;
+    }
+
+    /**
+     * Get the source name
+     *
+     * @return the source name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Read the source
+     *
+     * @param view ignored, the text is
+     *             never copied
+     * @return the script text
+     */
+    @Override
+    public CharSequence read(final boolean view) {
+        return text;
+    }
+}
@@ -0,0 +1,127 @@
+package es.karmadev.test;
+
+import es.karmadev.api.script.ScriptParser;
+import es.karmadev.api.script.body.ExecutionEngine;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.exec.BufferSink;
+import es.karmadev.api.script.exec.OutputSink;
+import es.karmadev.api.script.exec.ScriptExecutor;
+import es.karmadev.api.script.exec.ScriptRun;
+import es.karmadev.api.script.source.ScriptSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same script body from many threads at
+ * once, each run writing to its own sink, and checks
+ * every run wrote exactly the expected output
+ */
+public class ConcurrentRunTest {
+
+    private final static int THREADS = 16;
+    private final static int RUNS = 2_000;
+
+    private final static String SCRIPT = String.join("\n",
+            ":schema 1",
+            "#def [system]",
+            "",
+            "main() {",
+            "    echo ['run start']",
+            "    greet('alpha', 1)",
+            "    greet('beta', 2)",
+            "    count(3)",
+            "    system#println('values $0 $1 $2', 1, 'two', 3)",
+            "    echo ['run end']",
+            "}",
+            "",
+            "greet(name, index) {",
+            "    echo ['hello $0 #$1', name, index]",
+            "    system#print('greeted ')",
+            "    system#println(name)",
+            "}",
+            "",
+            "count(n) {",
+            "    echo ['count $0', n]",
+            "    greet('gamma', n)",
+            "}");
+
+    private final static String EXPECTED = String.join("\n",
+            "run start",
+            "hello alpha #1",
+            "greeted alpha",
+            "hello beta #2",
+            "greeted beta",
+            "count 3",
+            "hello gamma #3",
+            "greeted gamma",
+            "values 1 two 3",
+            "run end",
+            "");
+
+    public static void main(String[] args) throws Throwable {
+        ScriptBody body = new ScriptParser(ScriptSource.of("concurrent.kls", SCRIPT)).getBody();
+
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            run(body.withEngine(engine));
+            java.lang.System.out.println(engine + ": " + RUNS + " concurrent runs on " + THREADS + " threads passed");
+        }
+    }
+
+    private static void run(final ScriptBody body) throws Throwable {
+        List<ScriptRun> runs = new ArrayList<>(RUNS);
+        List<BufferSink> sinks = new ArrayList<>(RUNS);
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ScriptExecutor executor = ScriptExecutor.pooled(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                executor.submit(body, "main", 0, TimeUnit.NANOSECONDS, new LatchSink(start));
+            }
+
+            for (int i = 0; i < RUNS; i++) {
+                BufferSink sink = OutputSink.buffer();
+                sinks.add(sink);
+                runs.add(executor.submit(body, sink));
+            }
+            start.countDown();
+
+            for (int i = 0; i < RUNS; i++) {
+                runs.get(i).get(30, TimeUnit.SECONDS);
+
+                String output = sinks.get(i).getText().replace("\r\n", "\n");
+                if (!EXPECTED.equals(output)) {
+                    throw new AssertionError(body.getEngine() + " run " + i + " wrote \"" + output +
+                            "\", expected \"" + EXPECTED + "\"");
+                }
+            }
+        }
+    }
+
+    /*
+    Sink of the runs submitted first, which hold every pool
+    thread until all the runs are submitted, so the runs start
+    at the same time
+     */
+    private final static class LatchSink implements OutputSink {
+
+        private final CountDownLatch latch;
+
+        LatchSink(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void write(final CharSequence text) {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void flush() {}
+    }
+}
@@ -0,0 +1,119 @@
+package es.karmadev.test;
+
+import es.karmadev.api.script.body.Variable;
+import es.karmadev.api.script.lang.imports.sys.PrintTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the compiled print templates with the
+ * replace based formatting print used before, on long
+ * templates with many placeholders
+ */
+public class PrintTemplateBenchmark {
+
+    private final static int WARMUP = 20_000;
+    private final static int ITERATIONS = 100_000;
+
+    public static void main(String[] args) {
+        run("short, 2 values", template(2, 2), values(2));
+        run("short, 4 values", template(4, 4), values(4));
+        run("long, 4 values", template(4, 64), values(4));
+        run("long, 10 values", template(10, 200), values(10));
+        run("long, missing placeholders", template(3, 100), values(8));
+    }
+
+    private static void run(final String name, final String format, final Variable[] values) {
+        PrintTemplate template = PrintTemplate.compile(format);
+
+        String expected = replace(format, values);
+        String actual = render(template, values);
+        if (!expected.equals(actual)) {
+            throw new AssertionError(name + ": template rendered \"" + actual + "\", expected \"" + expected + "\"");
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += replace(format, values).length();
+            sink += render(template, values).length();
+        }
+
+        long start = java.lang.System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += replace(format, values).length();
+        }
+        long replaced = java.lang.System.nanoTime() - start;
+
+        start = java.lang.System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += render(template, values).length();
+        }
+        long rendered = java.lang.System.nanoTime() - start;
+
+        java.lang.System.out.printf("%-28s replace: %6d ns/op  template: %6d ns/op  (%.1fx) [%d]%n", name,
+                replaced / ITERATIONS, rendered / ITERATIONS, (double) replaced / Math.max(1, rendered), sink % 10);
+    }
+
+    private static String render(final PrintTemplate template, final Variable[] values) {
+        switch (values.length) {
+            case 1:
+                return template.render(values[0]);
+            case 2:
+                return template.render(values[0], values[1]);
+            case 3:
+                return template.render(values[0], values[1], values[2]);
+            case 4:
+                return template.render(values[0], values[1], values[2], values[3]);
+            default:
+                return template.render(values, 0, null);
+        }
+    }
+
+    /*
+    The formatting print used before templates were compiled,
+    which scans and copies the whole text once per value
+     */
+    private static String replace(final String format, final Variable[] values) {
+        String formatted = format;
+
+        int replacement = 0;
+        List<Variable> nonReplaced = new ArrayList<>();
+        for (Variable value : values) {
+            String placeholder = "$" + replacement;
+            String raw = String.valueOf(value.getValue(Object.class));
+
+            if (formatted.contains(placeholder)) {
+                formatted = formatted.replace(placeholder, raw);
+                replacement++;
+            } else {
+                nonReplaced.add(value);
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(formatted);
+        for (Variable missing : nonReplaced) {
+            builder.append(missing.getValue(Object.class));
+        }
+
+        return builder.toString();
+    }
+
+    private static String template(final int placeholders, final int repeats) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < repeats; i++) {
+            builder.append("segment ").append(i).append(" of the text with value $").append(i % placeholders).append(' ');
+        }
+
+        return builder.toString();
+    }
+
+    private static Variable[] values(final int amount) {
+        Variable[] values = new Variable[amount];
+        for (int i = 0; i < amount; i++) {
+            values[i] = Variable.wrap("value" + i, String.class);
+        }
+
+        return values;
+    }
+}
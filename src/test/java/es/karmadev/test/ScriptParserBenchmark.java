@@ -0,0 +1,204 @@
+package es.karmadev.test;
+
+import es.karmadev.api.script.LoadOption;
+import es.karmadev.api.script.ScriptParser;
+import es.karmadev.api.script.body.Import;
+import es.karmadev.api.script.body.ScriptBody;
+import es.karmadev.api.script.body.ScriptMethod;
+import es.karmadev.api.script.source.ScriptSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the lexer based script parser with the line
+ * and regex based parser used before, on generated scripts
+ * of growing size
+ */
+public class ScriptParserBenchmark {
+
+    private final static Pattern schemaPattern = Pattern.compile("^(this)?:schema(\\s)+(?<version>[0-9]+)$", Pattern.CASE_INSENSITIVE);
+    private final static Pattern importPattern = Pattern.compile("^(this)?#def \\[(?<import>\\w+)]$", Pattern.CASE_INSENSITIVE);
+    private final static Pattern methodStartPattern = Pattern.compile("^((?<method>\\w+)\\((?<parameters>.*)\\)\\s*\\{.*)$");
+
+    public static void main(String[] args) throws Throwable {
+        run(10, 2_000);
+        run(100, 200);
+        run(1_000, 20);
+    }
+
+    private static void run(final int methods, final int iterations) throws Throwable {
+        String script = generate(methods);
+
+        ScriptBody expected = legacy(script);
+        ScriptBody actual = parse(script, false);
+        verify(methods, expected, actual);
+
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += legacy(script).getMethods().size();
+            sink += parse(script, false).getMethods().size();
+            sink += parse(script, true).getMethods().size();
+        }
+
+        long start = java.lang.System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += legacy(script).getMethods().size();
+        }
+        long regex = java.lang.System.nanoTime() - start;
+
+        start = java.lang.System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += parse(script, false).getMethods().size();
+        }
+        long lexer = java.lang.System.nanoTime() - start;
+
+        start = java.lang.System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += parse(script, true).getMethods().size();
+        }
+        long lazy = java.lang.System.nanoTime() - start;
+
+        java.lang.System.out.printf("%5d methods (%7d chars)  regex: %9d ns/op  lexer: %9d ns/op (%.1fx)  lazy: %9d ns/op (%.1fx) [%d]%n",
+                methods, script.length(), regex / iterations, lexer / iterations, (double) regex / Math.max(1, lexer),
+                lazy / iterations, (double) regex / Math.max(1, lazy), sink % 10);
+    }
+
+    private static ScriptBody parse(final String script, final boolean lazy) throws Throwable {
+        ScriptSource source = ScriptSource.of("generated.kls", script);
+        ScriptParser parser = (lazy ? new ScriptParser(source, LoadOption.LAZY_METHODS) : new ScriptParser(source));
+
+        return parser.getBody();
+    }
+
+    private static void verify(final int methods, final ScriptBody expected, final ScriptBody actual) {
+        if (expected.getMethods().size() != methods + 1 || actual.getMethods().size() != methods + 1) {
+            throw new AssertionError("Expected " + (methods + 1) + " methods, got " + expected.getMethods().size() +
+                    " (regex) and " + actual.getMethods().size() + " (lexer)");
+        }
+
+        for (ScriptMethod method : expected.getMethods()) {
+            ScriptMethod other = actual.getMethod(method.getName(), new Object[method.getParameters()]);
+            if (other == null || other.getInstructions().length != method.getInstructions().length) {
+                throw new AssertionError("Method " + method.getName() + " differs between the parsers");
+            }
+        }
+    }
+
+    private static String generate(final int methods) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(":schema 1\n");
+        builder.append("#def [system]\n\n");
+
+        builder.append("main() {\n");
+        for (int i = 0; i < methods; i++) {
+            builder.append("    method").append(i).append("(").append(i).append(", 'value ").append(i).append("')\n");
+        }
+        builder.append("}\n\n");
+
+        for (int i = 0; i < methods; i++) {
+            builder.append("/*\n");
+            builder.append(" Generated method ").append(i).append("\n");
+            builder.append("*/\n");
+            builder.append("method").append(i).append("(index, name) {\n");
+            builder.append("    echo ['Running $0 with $1', index, name]\n");
+            builder.append("    system#print('index: ', index)\n");
+            builder.append("    system#println(' name: $0', name)\n");
+            builder.append("    echo ['Method ").append(i).append(" done']\n");
+            builder.append("}\n\n");
+        }
+
+        return builder.toString();
+    }
+
+    /*
+    The parser used before scripts were tokenized, which
+    matches every line of the script against the patterns
+     */
+    private static ScriptBody legacy(final String script) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(script))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+
+        Matcher schemaMatcher = schemaPattern.matcher(lines.remove(0));
+        if (!schemaMatcher.matches()) {
+            throw new IllegalArgumentException("Invalid schema");
+        }
+        int schemaVersion = Integer.parseInt(schemaMatcher.group("version"));
+
+        boolean commenting = false;
+        boolean parsing = true;
+
+        List<ScriptMethod> methods = new ArrayList<>();
+        int currentLevel = 0;
+        String currentMethod = "";
+        String[] currentParameters = new String[0];
+
+        StringBuilder methodBuilder = new StringBuilder();
+        for (String str : lines) {
+            str = ScriptParser.removeFirstSpaces(str);
+            if (str.trim().isEmpty()) {
+                continue;
+            }
+            if (commenting) {
+                if (str.endsWith("*/")) {
+                    commenting = false;
+                }
+
+                continue;
+            }
+            if (str.startsWith("/*")) {
+                commenting = true;
+                continue;
+            }
+
+            Matcher importMatcher = importPattern.matcher(str);
+            if (importMatcher.matches()) {
+                importMatcher.group("import");
+            }
+
+            Matcher methodMatcher = methodStartPattern.matcher(str);
+            if (methodMatcher.matches()) {
+                currentMethod = methodMatcher.group("method");
+
+                String rawParams = methodMatcher.group("parameters");
+                currentParameters = (rawParams.isEmpty() ? new String[0] : ScriptParser.groupContent(rawParams));
+                currentLevel++;
+            } else {
+                if (str.trim().endsWith("{")) {
+                    currentLevel++;
+                }
+                if (str.trim().equals("}")) {
+                    currentLevel--;
+                    if (currentLevel == 0) {
+                        parsing = true;
+                        String rawMethod = methodBuilder.substring(0, methodBuilder.length() - 1);
+
+                        methods.add(new ScriptMethod(currentMethod, rawMethod, currentParameters));
+                        methodBuilder = new StringBuilder();
+                    }
+                }
+
+                if (parsing && currentLevel != 0) {
+                    methodBuilder.append(str).append("\n");
+                    if (str.startsWith("exit")) {
+                        parsing = false;
+                    }
+                }
+            }
+        }
+
+        Import system = es.karmadev.api.script.lang.imports.sys.System.getImport();
+        return new ScriptBody(schemaVersion, Collections.singleton(system), methods);
+    }
+}